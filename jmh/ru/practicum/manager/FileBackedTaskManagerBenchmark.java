@@ -0,0 +1,215 @@
+package ru.practicum.manager;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.enums.Durability;
+import ru.practicum.enums.SaveMode;
+import ru.practicum.enums.SnapshotFormat;
+import ru.practicum.enums.Status;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Путь ввода-вывода FileBackedTaskManager: цена сохранения одного изменения в зависимости от размера доски,
+// загрузка снимка и строковый кодек CSV сам по себе. Доска та же, что в InMemoryTaskManagerBenchmark:
+// половина — задачи со временем, половина — подзадачи эпиков по 16. main запускает его с профилировщиком GC.
+// Запуск: java -cp <classpath> ru.practicum.manager.FileBackedTaskManagerBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FileBackedTaskManagerBenchmark {
+
+    private static final int SUBTASKS_PER_EPIC = 16;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FileBackedTaskManagerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    // Заполняем хранилища напрямую, минуя запись на диск: иначе подготовка доски на 1M заняла бы часы.
+    static void fill(FileBackedTaskManager manager, int size) {
+        int id = 0;
+        int taskCount = size / 2;
+        for (int i = 0; i < taskCount; i++) {
+            id++;
+            Task task = new Task(id, "Task " + id, "Description " + id, Status.NEW, BASE.plusHours(id),
+                    Duration.ofMinutes(30));
+            manager.tasks.put(id, task);
+            manager.addPrioritized(task);
+        }
+        while (id < size) {
+            Epic epic = new Epic(++id, "Epic " + id, "Description " + id, Status.NEW);
+            manager.epics.put(id, epic);
+            for (int i = 0; i < SUBTASKS_PER_EPIC && id < size; i++) {
+                id++;
+                Subtask subtask = new Subtask(id, "Subtask " + id, "Description " + id, Status.IN_PROGRESS,
+                        epic.getId());
+                subtask.setStartTime(BASE.plusHours(id));
+                subtask.setDuration(Duration.ofMinutes(30));
+                manager.subtasks.put(id, subtask);
+                manager.addPrioritized(subtask);
+                epic.addSubtask(subtask);
+            }
+        }
+        manager.nextID = id + 1;
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Board {
+
+        @Param({"1000", "10000", "100000"})
+        int size;
+
+        @Param({"SNAPSHOT", "JOURNAL"})
+        SaveMode saveMode;
+
+        @Param({"CSV", "BINARY"})
+        SnapshotFormat format;
+
+        Path directory;
+        FileBackedTaskManager manager;
+        int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("kanban-bench");
+            manager = new FileBackedTaskManager(directory.resolve("tasks.csv").toFile(), saveMode, Durability.NONE,
+                    format);
+            fill(manager, size);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            manager.close();
+            deleteRecursively(directory);
+        }
+
+        Task nextTask() {
+            cursor = (cursor + 7919) % (size / 2);
+            return manager.tasks.get(cursor + 1);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Snapshot {
+
+        @Param({"10000", "100000", "1000000"})
+        int records;
+
+        @Param({"CSV", "BINARY"})
+        SnapshotFormat format;
+
+        Path directory;
+        File file;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("kanban-bench");
+            file = directory.resolve("tasks.csv").toFile();
+            FileBackedTaskManager source = new FileBackedTaskManager(file);
+            try {
+                fill(source, records);
+                source.exportTo(file, format);
+            } finally {
+                source.close();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            deleteRecursively(directory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Codec {
+
+        Task task;
+        Subtask subtask;
+        String taskLine;
+        String subtaskLine;
+
+        @Setup
+        public void setUp() {
+            task = new Task(123_456, "Task 123456", "Description 123456", Status.NEW, BASE.plusHours(123_456),
+                    Duration.ofMinutes(30));
+            subtask = new Subtask(123_457, "Subtask 123457", "Description 123457", Status.IN_PROGRESS, 123_440);
+            subtask.setStartTime(BASE.plusHours(123_457));
+            subtask.setDuration(Duration.ofMinutes(45));
+            taskLine = FileBackedTaskManager.toString(task);
+            subtaskLine = FileBackedTaskManager.toString(subtask);
+        }
+    }
+
+    // В режиме SNAPSHOT каждое изменение переписывает весь файл, в JOURNAL дописывает одну строку
+    // и раз в порог записей уплотняет журнал в снимок.
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Task updateTask(Board board) {
+        return board.manager.updateTask(board.nextTask());
+    }
+
+    // CSV без журнала открывается лениво, поэтому отдельно меряем открытие и полную загрузку.
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public FileBackedTaskManager openSnapshot(Snapshot snapshot) {
+        return FileBackedTaskManager.loadFromFile(snapshot.file, SaveMode.SNAPSHOT, Durability.NONE, snapshot.format);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Task> loadSnapshot(Snapshot snapshot) {
+        return FileBackedTaskManager.loadFromFile(snapshot.file, SaveMode.SNAPSHOT, Durability.NONE, snapshot.format)
+                .getPrioritizedTasks();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String encodeTask(Codec codec) {
+        return FileBackedTaskManager.toString(codec.task);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String encodeSubtask(Codec codec) {
+        return FileBackedTaskManager.toString(codec.subtask);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Task decodeTask(Codec codec) {
+        return FileBackedTaskManager.fromString(codec.taskLine);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Task decodeSubtask(Codec codec) {
+        return FileBackedTaskManager.fromString(codec.subtaskLine);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.manager;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.enums.Status;
+import ru.practicum.task.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// InMemoryHistoryManager при просмотрах задач с доски из size элементов. Ёмкость истории стандартная,
+// поэтому на больших досках почти каждый просмотр вытесняет самую давнюю запись.
+// Запуск: java -cp <classpath> org.openjdk.jmh.Main HistoryManagerBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class HistoryManagerBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"timed", "untimed"})
+    private String mix;
+
+    private InMemoryHistoryManager history;
+    private Task[] board;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = new Task[size];
+        for (int id = 1; id <= size; id++) {
+            board[id - 1] = mix.equals("timed")
+                    ? new Task(id, "Task " + id, "Description", Status.NEW, BASE.plusHours(id), Duration.ofMinutes(30))
+                    : new Task(id, "Task " + id, "Description", Status.NEW);
+        }
+        history = new InMemoryHistoryManager();
+        for (int i = 0; i < Math.min(size, history.getCapacity()); i++) {
+            history.add(board[i]);
+        }
+    }
+
+    private Task next() {
+        cursor = (cursor + 7919) % board.length;
+        return board[cursor];
+    }
+
+    @Benchmark
+    public void add() {
+        history.add(next());
+    }
+
+    @Benchmark
+    public List<Task> getHistoryCached() {
+        return history.getHistory();
+    }
+
+    @Benchmark
+    public List<Task> addAndGetHistory() {
+        history.add(next());
+        return history.getHistory();
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.manager;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.enums.Status;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Горячие пути InMemoryTaskManager на доске из size элементов: половина — задачи, половина — подзадачи
+// эпиков по SUBTASKS_PER_EPIC. В смеси timed у всех элементов есть непересекающееся время, в untimed — ни
+// у кого, в mixed — у каждого второго. Размер доски между вызовами постоянен: добавленное тут же удаляется.
+// Запуск: java -cp <classpath> org.openjdk.jmh.Main InMemoryTaskManagerBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class InMemoryTaskManagerBenchmark {
+
+    private static final int SUBTASKS_PER_EPIC = 16;
+    private static final int PROBES = 1024;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final Duration SLOT = Duration.ofMinutes(30);
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"timed", "untimed", "mixed"})
+    private String mix;
+
+    private InMemoryTaskManager manager;
+    private ScheduleIndex scheduleIndex;
+    private int[] taskIds;
+    private int[] subtaskIds;
+    private Task[] probes;
+    private Task churnTask;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = new InMemoryTaskManager();
+        scheduleIndex = new ScheduleIndex();
+        int taskCount = size / 2;
+        int epicCount = Math.max((size - taskCount) / SUBTASKS_PER_EPIC, 1);
+        taskIds = new int[taskCount];
+        subtaskIds = new int[epicCount * SUBTASKS_PER_EPIC];
+        int slot = 0;
+        for (int i = 0; i < taskCount; i++, slot++) {
+            Task task = manager.addTask(timed(slot) ? new Task("Task " + slot, "Description", Status.NEW,
+                    start(slot), SLOT) : new Task("Task " + slot, "Description"));
+            taskIds[i] = task.getId();
+            scheduleIndex.add(task);
+        }
+        int s = 0;
+        for (int e = 0; e < epicCount; e++) {
+            Epic epic = manager.addEpic(new Epic("Epic " + e, "Description"));
+            for (int i = 0; i < SUBTASKS_PER_EPIC; i++, slot++) {
+                Subtask subtask = new Subtask("Subtask " + slot, "Description", epic.getId());
+                if (timed(slot)) {
+                    subtask.setStartTime(start(slot));
+                    subtask.setDuration(SLOT);
+                }
+                subtaskIds[s++] = manager.addSubtask(subtask).getId();
+            }
+        }
+        // Пробы для проверки пересечений: чётные попадают внутрь занятого интервала, нечётные — между ними.
+        SplittableRandom random = new SplittableRandom(7);
+        probes = new Task[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            LocalDateTime probeStart = start(random.nextInt(taskCount)).plusMinutes(i % 2 == 0 ? 10 : 40);
+            probes[i] = new Task(Integer.MAX_VALUE, "Probe", "Description", Status.NEW, probeStart,
+                    Duration.ofMinutes(10));
+        }
+        churnTask = timed(slot) ? new Task("Churn", "Description", Status.NEW, start(slot), SLOT)
+                : new Task("Churn", "Description");
+    }
+
+    private boolean timed(int slot) {
+        return switch (mix) {
+            case "timed" -> true;
+            case "untimed" -> false;
+            default -> slot % 2 == 0;
+        };
+    }
+
+    private static LocalDateTime start(int slot) {
+        return BASE.plusHours(slot);
+    }
+
+    // Шаг — простое число: обход воспроизводим, но соседние вызовы не попадают в одни и те же строки кэша.
+    private int nextIndex(int length) {
+        cursor = (cursor + 7919) % length;
+        return cursor;
+    }
+
+    private int next(int[] ids) {
+        return ids[nextIndex(ids.length)];
+    }
+
+    @Benchmark
+    public Task addAndDeleteTask() {
+        Task task = manager.addTask(churnTask);
+        return manager.deleteTaskByID(task.getId());
+    }
+
+    @Benchmark
+    public Task updateTask() {
+        return manager.updateTask(manager.tasks.get(next(taskIds)));
+    }
+
+    @Benchmark
+    public Task getTaskByID() {
+        return manager.getTaskByID(next(taskIds));
+    }
+
+    @Benchmark
+    public boolean overlaps() {
+        cursor = (cursor + 1) & (PROBES - 1);
+        return scheduleIndex.overlaps(probes[cursor]);
+    }
+
+    // Снимок кэшируется по версии, поэтому отдельно меряем и попадание в кэш, и пересборку после изменения.
+    @Benchmark
+    public List<Task> getPrioritizedTasksCached() {
+        return manager.getPrioritizedTasks();
+    }
+
+    @Benchmark
+    public List<Task> getPrioritizedTasksAfterUpdate() {
+        manager.updateTask(manager.tasks.get(next(taskIds)));
+        return manager.getPrioritizedTasks();
+    }
+
+    @Benchmark
+    public List<Task> getPrioritizedPage() {
+        return manager.getPrioritizedTasks(start(nextIndex(taskIds.length)), null, 50);
+    }
+
+    // Обновление подзадачи пересчитывает статус и время её эпика.
+    @Benchmark
+    public Subtask updateSubtask() {
+        return manager.updateSubtask(manager.subtasks.get(next(subtaskIds)));
+    }
+}
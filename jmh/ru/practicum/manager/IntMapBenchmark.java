@@ -0,0 +1,80 @@
+package ru.practicum.manager;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.enums.Status;
+import ru.practicum.task.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Сравнение хранилища задач на 1M записей: HashMap<Integer, Task> против IntMap<Task>.
+// Запуск: java -cp <classpath> org.openjdk.jmh.Main IntMapBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntMapBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param("1000000")
+    private int size;
+
+    private Map<Integer, Task> hashMap;
+    private IntMap<Task> intMap;
+    private int[] keys;
+    private int nextKey;
+
+    @Setup
+    public void setUp() {
+        hashMap = new HashMap<>();
+        intMap = new IntMap<>();
+        for (int id = 1; id <= size; id++) {
+            Task task = new Task(id, "Task " + id, "Description", Status.NEW);
+            hashMap.put(id, task);
+            intMap.put(id, task);
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        keys = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            keys[i] = random.nextInt(1, size + 1);
+        }
+        nextKey = size + 1;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void getHashMap(Blackhole blackhole) {
+        for (int key : keys) {
+            blackhole.consume(hashMap.get(key));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void getIntMap(Blackhole blackhole) {
+        for (int key : keys) {
+            blackhole.consume(intMap.get(key));
+        }
+    }
+
+    // Удаляем самую старую запись и добавляем новую: размер постоянен, как у живой доски.
+    @Benchmark
+    public Task churnHashMap() {
+        Task task = hashMap.remove(nextKey - size);
+        hashMap.put(nextKey++, task);
+        return task;
+    }
+
+    @Benchmark
+    public Task churnIntMap() {
+        Task task = intMap.remove(nextKey - size);
+        intMap.put(nextKey++, task);
+        return task;
+    }
+}
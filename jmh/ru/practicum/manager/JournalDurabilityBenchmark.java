@@ -0,0 +1,82 @@
+package ru.practicum.manager;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.enums.Durability;
+import ru.practicum.enums.SaveMode;
+import ru.practicum.task.Task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Пропускная способность дозаписи в журнал при каждой durability с одним и восемью пишущими потоками:
+// append* — сам TaskJournal, updateTask* — обновление задачи через FileBackedTaskManager в режиме JOURNAL,
+// где запись идёт под монитором менеджера, а ожидание force — после него. Запись ~80 байт, как строка PUT
+// для задачи. Журнал и менеджер заводятся заново на каждую итерацию, чтобы файлы не росли от итерации
+// к итерации. В ASYNC меряется постановка в очередь: записи из неё теряются при сбое питания.
+// Запуск: java -cp <classpath> org.openjdk.jmh.Main JournalDurabilityBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class JournalDurabilityBenchmark {
+
+    private static final int BOARD_SIZE = 1024;
+    private static final String RECORD = "PUT,123456,TASK,Задача 123456,NEW,Описание задачи,,2025-01-01T10:00,30";
+
+    @Param({"NONE", "ASYNC", "GROUP_COMMIT", "SYNC"})
+    private Durability durability;
+
+    private Path directory;
+    private TaskJournal journal;
+    private FileBackedTaskManager manager;
+    private Task[] boardTasks;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("kanban-bench");
+        journal = new TaskJournal(directory.resolve("journal.csv").toFile(), durability);
+        manager = new FileBackedTaskManager(directory.resolve("tasks.csv").toFile(), SaveMode.JOURNAL, durability);
+        FileBackedTaskManagerBenchmark.fill(manager, BOARD_SIZE);
+        boardTasks = manager.tasks.values().toArray(new Task[0]);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        journal.close();
+        manager.close();
+        FileBackedTaskManagerBenchmark.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void appendOneWriter() throws IOException {
+        journal.append(RECORD);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void appendEightWriters() throws IOException {
+        journal.append(RECORD);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Task updateTaskOneWriter() {
+        return updateTask();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Task updateTaskEightWriters() {
+        return updateTask();
+    }
+
+    private Task updateTask() {
+        return manager.updateTask(boardTasks[ThreadLocalRandom.current().nextInt(boardTasks.length)]);
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.manager;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.enums.Durability;
+import ru.practicum.enums.SaveMode;
+import ru.practicum.enums.SnapshotFormat;
+import ru.practicum.enums.Status;
+import ru.practicum.task.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// CSV против бинарного снимка на задачах с кириллическими именами: время записи, время полной загрузки
+// (вместе с пересборкой списка приоритетов) и размер файла. События JMH суммируются по итерациям, поэтому
+// размер снимается в fileSize за одну итерацию из одного вызова.
+// Запуск: java -cp <classpath> org.openjdk.jmh.Main SnapshotFormatBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SnapshotFormatBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Param({"10000", "200000"})
+    private int records;
+
+    @Param({"CSV", "BINARY"})
+    private SnapshotFormat format;
+
+    private Path directory;
+    private File file;
+    private FileBackedTaskManager source;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FileSize {
+        public long fileBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("kanban-bench");
+        file = directory.resolve("tasks.snapshot").toFile();
+        source = new FileBackedTaskManager(file);
+        for (int id = 1; id <= records; id++) {
+            Task task = new Task(id, "Задача " + id, "Подготовить отчёт по проекту " + id, Status.NEW,
+                    BASE.plusHours(id), Duration.ofMinutes(30));
+            source.tasks.put(id, task);
+            source.addPrioritized(task);
+        }
+        source.exportTo(file, format);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        source.close();
+        FileBackedTaskManagerBenchmark.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void write() {
+        source.exportTo(file, format);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1, batchSize = 1)
+    public void fileSize(FileSize size) {
+        source.exportTo(file, format);
+        size.fileBytes = file.length();
+    }
+
+    @Benchmark
+    public List<Task> load() {
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, SaveMode.SNAPSHOT, Durability.NONE,
+                format);
+        return loaded.getPrioritizedTasks();
+    }
+}
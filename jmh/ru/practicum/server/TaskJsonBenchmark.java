@@ -0,0 +1,83 @@
+package ru.practicum.server;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.enums.Status;
+import ru.practicum.server.adapter.DurationAdapter;
+import ru.practicum.server.adapter.LocalDateTimeAdapter;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.io.Writer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Сериализация списков задач и эпиков: рефлексивный адаптер Gson против написанных вручную.
+// Запуск: java -cp <classpath> org.openjdk.jmh.Main TaskJsonBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    private static final int TASKS = 1_000;
+    private static final int EPICS = 100;
+    private static final int SUBTASKS_PER_EPIC = 10;
+
+    @Param({"reflective", "adapters"})
+    private String serializer;
+
+    private Gson gson;
+    private List<Task> tasks;
+    private List<Epic> epics;
+    private String taskJson;
+
+    @Setup
+    public void setUp() {
+        gson = serializer.equals("adapters") ? HttpTaskServer.getGson() : new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+                .registerTypeAdapter(Duration.class, new DurationAdapter())
+                .create();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        tasks = new ArrayList<>();
+        for (int id = 1; id <= TASKS; id++) {
+            tasks.add(new Task(id, "Task " + id, "Description " + id, Status.NEW, base.plusHours(id),
+                    Duration.ofMinutes(30)));
+        }
+        epics = new ArrayList<>();
+        int id = TASKS;
+        for (int e = 0; e < EPICS; e++) {
+            Epic epic = new Epic(++id, "Epic " + e, "Description", Status.NEW);
+            for (int s = 0; s < SUBTASKS_PER_EPIC; s++) {
+                Subtask subtask = new Subtask(++id, "Subtask " + s, "Description", Status.IN_PROGRESS, epic.getId());
+                subtask.setStartTime(base.plusMinutes(id));
+                subtask.setDuration(Duration.ofMinutes(1));
+                epic.addSubtask(subtask);
+            }
+            epics.add(epic);
+        }
+        taskJson = gson.toJson(tasks.get(0));
+    }
+
+    @Benchmark
+    public void writeTasks() {
+        gson.toJson(tasks, Writer.nullWriter());
+    }
+
+    @Benchmark
+    public void writeEpics() {
+        gson.toJson(epics, Writer.nullWriter());
+    }
+
+    @Benchmark
+    public Task readTask() {
+        return gson.fromJson(taskJson, Task.class);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.enums;
+
+public enum BatchAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,7 @@
+package ru.practicum.enums;
+
+public enum BatchStatus {
+    OK,
+    NOT_FOUND,
+    OVERLAP
+}
@@ -0,0 +1,8 @@
+package ru.practicum.enums;
+
+public enum Durability {
+    NONE,
+    ASYNC,
+    GROUP_COMMIT,
+    SYNC
+}
@@ -0,0 +1,7 @@
+package ru.practicum.enums;
+
+public enum ExecutorMode {
+    SINGLE_THREAD,
+    VIRTUAL_THREADS,
+    PLATFORM_POOL
+}
@@ -0,0 +1,7 @@
+package ru.practicum.enums;
+
+public enum SaveMode {
+    SNAPSHOT,
+    BACKGROUND_SNAPSHOT,
+    JOURNAL
+}
@@ -0,0 +1,9 @@
+package ru.practicum.enums;
+
+public enum TaskCollection {
+    TASKS,
+    EPICS,
+    SUBTASKS,
+    PRIORITIZED,
+    HISTORY
+}
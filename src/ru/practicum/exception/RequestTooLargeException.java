@@ -0,0 +1,7 @@
+package ru.practicum.exception;
+
+public class RequestTooLargeException extends RuntimeException {
+    public RequestTooLargeException(String message) {
+        super(message);
+    }
+}
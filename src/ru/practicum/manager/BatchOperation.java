@@ -0,0 +1,59 @@
+package ru.practicum.manager;
+
+import ru.practicum.enums.BatchAction;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+import ru.practicum.task.TaskType;
+
+public final class BatchOperation {
+
+    private final BatchAction action;
+    private final TaskType type;
+    private final Task task;
+    private final int id;
+
+    private BatchOperation(BatchAction action, TaskType type, Task task, int id) {
+        this.action = action;
+        this.type = type;
+        this.task = task;
+        this.id = id;
+    }
+
+    public static BatchOperation create(Task task) {
+        return new BatchOperation(BatchAction.CREATE, typeOf(task), task, task.getId());
+    }
+
+    public static BatchOperation update(Task task) {
+        return new BatchOperation(BatchAction.UPDATE, typeOf(task), task, task.getId());
+    }
+
+    public static BatchOperation delete(TaskType type, int id) {
+        return new BatchOperation(BatchAction.DELETE, type, null, id);
+    }
+
+    private static TaskType typeOf(Task task) {
+        if (task instanceof Epic) {
+            return TaskType.EPIC;
+        } else if (task instanceof Subtask) {
+            return TaskType.SUBTASK;
+        }
+        return TaskType.TASK;
+    }
+
+    public BatchAction getAction() {
+        return action;
+    }
+
+    public TaskType getType() {
+        return type;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.manager;
+
+import ru.practicum.enums.BatchStatus;
+import ru.practicum.task.Task;
+
+public final class BatchResult {
+
+    private final BatchStatus status;
+    private final Task task;
+    private final String message;
+
+    private BatchResult(BatchStatus status, Task task, String message) {
+        this.status = status;
+        this.task = task;
+        this.message = message;
+    }
+
+    public static BatchResult ok(Task task) {
+        return new BatchResult(BatchStatus.OK, task, null);
+    }
+
+    public static BatchResult failed(BatchStatus status, String message) {
+        return new BatchResult(status, null, message);
+    }
+
+    public BatchStatus getStatus() {
+        return status;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
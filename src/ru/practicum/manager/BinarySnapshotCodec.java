@@ -0,0 +1,211 @@
+package ru.practicum.manager;
+
+import ru.practicum.enums.Status;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+// Формат v1: магия "KBIN", версия, количество задач/эпиков/подзадач (varint), затем записи по секциям.
+// Запись: id (varint), имя и описание (varint длины + 1, 0 — null, затем UTF-8), статус (байт),
+// начало (минуты от эпохи long, Long.MIN_VALUE — null, затем остаток в наносекундах varint),
+// продолжительность в минутах (zigzag varint), у подзадачи ещё id эпика (varint).
+class BinarySnapshotCodec {
+
+    private static final byte[] MAGIC = {'K', 'B', 'I', 'N'};
+    private static final int VERSION = 1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final Status[] STATUSES = Status.values();
+
+    static class Contents {
+        final IntMap<Task> tasks;
+        final IntMap<Epic> epics;
+        final IntMap<Subtask> subtasks;
+
+        Contents(int taskCount, int epicCount, int subtaskCount) {
+            this.tasks = new IntMap<>(taskCount);
+            this.epics = new IntMap<>(epicCount);
+            this.subtasks = new IntMap<>(subtaskCount);
+        }
+    }
+
+    static boolean isBinary(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return Arrays.equals(in.readNBytes(MAGIC.length), MAGIC);
+        }
+    }
+
+    static void write(OutputStream out, List<Task> items) throws IOException {
+        int taskCount = 0;
+        int epicCount = 0;
+        int subtaskCount = 0;
+        for (Task task : items) {
+            if (task instanceof Epic) {
+                epicCount++;
+            } else if (task instanceof Subtask) {
+                subtaskCount++;
+            } else {
+                taskCount++;
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        writeVarLong(data, taskCount);
+        writeVarLong(data, epicCount);
+        writeVarLong(data, subtaskCount);
+        writeSection(data, items, Task.class);
+        writeSection(data, items, Epic.class);
+        writeSection(data, items, Subtask.class);
+        data.flush();
+    }
+
+    private static void writeSection(DataOutputStream data, List<Task> items, Class<?> type) throws IOException {
+        for (Task task : items) {
+            if (task.getClass() != type) {
+                continue;
+            }
+            writeVarLong(data, task.getId());
+            writeString(data, task.getName());
+            writeString(data, task.getDescription());
+            data.writeByte(task.getStatus().ordinal());
+            writeTime(data, task.getStartTime());
+            writeVarLong(data, zigZag(task.getDuration().toMinutes()));
+            if (task instanceof Subtask) {
+                writeVarLong(data, ((Subtask) task).getEpicID());
+            }
+        }
+    }
+
+    static Contents read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] magic = new byte[MAGIC.length];
+        data.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Файл не является бинарным снимком задач");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия бинарного снимка: " + version);
+        }
+
+        int taskCount = (int) readVarLong(data);
+        int epicCount = (int) readVarLong(data);
+        int subtaskCount = (int) readVarLong(data);
+        Contents contents = new Contents(taskCount, epicCount, subtaskCount);
+
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task((int) readVarLong(data), readString(data), readString(data),
+                    STATUSES[data.readUnsignedByte()]);
+            readTiming(data, task);
+            contents.tasks.put(task.getId(), task);
+        }
+        for (int i = 0; i < epicCount; i++) {
+            Epic epic = new Epic((int) readVarLong(data), readString(data), readString(data),
+                    STATUSES[data.readUnsignedByte()]);
+            readTiming(data, epic);
+            contents.epics.put(epic.getId(), epic);
+        }
+        for (int i = 0; i < subtaskCount; i++) {
+            int id = (int) readVarLong(data);
+            String name = readString(data);
+            String description = readString(data);
+            Status status = STATUSES[data.readUnsignedByte()];
+            LocalDateTime startTime = readTime(data);
+            Duration duration = Duration.ofMinutes(unZigZag(readVarLong(data)));
+            Subtask subtask = new Subtask(id, name, description, status, (int) readVarLong(data));
+            subtask.setStartTime(startTime);
+            subtask.setDuration(duration);
+            contents.subtasks.put(id, subtask);
+        }
+        return contents;
+    }
+
+    private static void readTiming(DataInputStream data, Task task) throws IOException {
+        task.setStartTime(readTime(data));
+        task.setDuration(Duration.ofMinutes(unZigZag(readVarLong(data))));
+    }
+
+    private static void writeTime(DataOutputStream data, LocalDateTime time) throws IOException {
+        if (time == null) {
+            data.writeLong(NO_TIME);
+            return;
+        }
+        long epochSecond = time.toEpochSecond(ZoneOffset.UTC);
+        long epochMinute = Math.floorDiv(epochSecond, 60);
+        data.writeLong(epochMinute);
+        writeVarLong(data, Math.floorMod(epochSecond, 60) * 1_000_000_000L + time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream data) throws IOException {
+        long epochMinute = data.readLong();
+        if (epochMinute == NO_TIME) {
+            return null;
+        }
+        long nanoOfMinute = readVarLong(data);
+        return LocalDateTime.ofEpochSecond(epochMinute * 60 + nanoOfMinute / 1_000_000_000L,
+                (int) (nanoOfMinute % 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(data, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(data, bytes.length + 1L);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        int length = (int) readVarLong(data) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream data, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            data.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        data.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream data) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Некорректное число varint в бинарном снимке");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,236 @@
+package ru.practicum.manager;
+
+import ru.practicum.enums.TaskCollection;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+// Эпики меняются на месте при изменении подзадач, поэтому наружу уходят их копии, снятые под блокировкой.
+public class ConcurrentTaskManager extends InMemoryTaskManager {
+
+    private final StampedLock lock = new StampedLock();
+    // StampedLock не реентерабелен: поток, держащий блокировку записи на время пакета, выполняет
+    // вложенные операции без повторного захвата.
+    private volatile Thread batchOwner;
+
+    public ConcurrentTaskManager() {
+        super(new StripedHistoryManager(Managers.getDefaultHistory()));
+    }
+
+    private <T> T read(Supplier<T> action) {
+        if (batchOwner == Thread.currentThread()) {
+            return action.get();
+        }
+        long stamp = lock.readLock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <T> T write(Supplier<T> action) {
+        if (batchOwner == Thread.currentThread()) {
+            return action.get();
+        }
+        long stamp = lock.writeLock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void write(Runnable action) {
+        if (batchOwner == Thread.currentThread()) {
+            action.run();
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            action.run();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static <T extends Task> T detached(T task) {
+        if (task instanceof Epic epic) {
+            @SuppressWarnings("unchecked")
+            T copy = (T) new Epic(epic);
+            return copy;
+        }
+        return task;
+    }
+
+    private static <T extends Task> List<T> detached(List<T> items) {
+        List<T> copies = null;
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (copies == null && item instanceof Epic) {
+                copies = new ArrayList<>(items.subList(0, i));
+            }
+            if (copies != null) {
+                copies.add(detached(item));
+            }
+        }
+        return copies == null ? items : Collections.unmodifiableList(copies);
+    }
+
+    @Override
+    public Task addTask(Task task) {
+        return write(() -> super.addTask(task));
+    }
+
+    @Override
+    public Epic addEpic(Epic epic) {
+        return write(() -> detached(super.addEpic(epic)));
+    }
+
+    @Override
+    public Subtask addSubtask(Subtask subtask) {
+        return write(() -> super.addSubtask(subtask));
+    }
+
+    @Override
+    public Task updateTask(Task task) {
+        return write(() -> super.updateTask(task));
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        return write(() -> detached(super.updateEpic(epic)));
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        return write(() -> super.updateSubtask(subtask));
+    }
+
+    @Override
+    public Task getTaskByID(int id) {
+        return read(() -> super.getTaskByID(id));
+    }
+
+    @Override
+    public Epic getEpicByID(int id) {
+        return read(() -> detached(super.getEpicByID(id)));
+    }
+
+    @Override
+    public Subtask getSubtaskByID(int id) {
+        return read(() -> super.getSubtaskByID(id));
+    }
+
+    @Override
+    public LookupResult<Task> getTasksByIds(int[] ids) {
+        return read(() -> super.getTasksByIds(ids));
+    }
+
+    @Override
+    public LookupResult<Epic> getEpicsByIds(int[] ids) {
+        return read(() -> {
+            LookupResult<Epic> result = super.getEpicsByIds(ids);
+            return new LookupResult<>(detached(result.getFound()), result.getMissing());
+        });
+    }
+
+    @Override
+    public LookupResult<Subtask> getSubtasksByIds(int[] ids) {
+        return read(() -> super.getSubtasksByIds(ids));
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        return read(super::getTasks);
+    }
+
+    @Override
+    public List<Epic> getEpics() {
+        return read(() -> detached(super.getEpics()));
+    }
+
+    @Override
+    public List<Subtask> getSubtasks() {
+        return read(super::getSubtasks);
+    }
+
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) {
+        return read(() -> new ArrayList<>(super.getEpicSubtasks(epicId)));
+    }
+
+    @Override
+    public void deleteTasks() {
+        write(super::deleteTasks);
+    }
+
+    @Override
+    public void deleteEpics() {
+        write(super::deleteEpics);
+    }
+
+    @Override
+    public void deleteSubtasks() {
+        write(super::deleteSubtasks);
+    }
+
+    @Override
+    public Task deleteTaskByID(int id) {
+        return write(() -> super.deleteTaskByID(id));
+    }
+
+    @Override
+    public Epic deleteEpicByID(int id) {
+        return write(() -> super.deleteEpicByID(id));
+    }
+
+    @Override
+    public Subtask deleteSubtaskByID(int id) {
+        return write(() -> super.deleteSubtaskByID(id));
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(() -> detached(super.getHistory()));
+    }
+
+    @Override
+    public List<BatchResult> applyBatch(List<BatchOperation> operations) {
+        long stamp = lock.writeLock();
+        batchOwner = Thread.currentThread();
+        try {
+            return super.applyBatch(operations);
+        } finally {
+            batchOwner = null;
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return read(super::getPrioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        return read(() -> super.getPrioritizedTasks(from, to, limit));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksAfter(LocalDateTime cursorStart, int cursorId, LocalDateTime to, int limit) {
+        return read(() -> super.getPrioritizedTasksAfter(cursorStart, cursorId, to, limit));
+    }
+
+    @Override
+    public long getVersion(TaskCollection collection) {
+        return read(() -> super.getVersion(collection));
+    }
+}
@@ -1,49 +1,360 @@
 package ru.practicum.manager;
 
+import ru.practicum.enums.Durability;
+import ru.practicum.enums.SaveMode;
+import ru.practicum.enums.SnapshotFormat;
 import ru.practicum.enums.Status;
+import ru.practicum.enums.TaskCollection;
 import ru.practicum.exception.ManagerSaveException;
+import ru.practicum.metrics.MetricsRegistry;
 import ru.practicum.task.Epic;
 import ru.practicum.task.Subtask;
 import ru.practicum.task.Task;
 import ru.practicum.task.TaskType;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 public class FileBackedTaskManager extends InMemoryTaskManager {
 
-    private final File file;
     private static final String HEADER = "id,type,name,status,description,epic,startTime,duration\n";
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 10_000;
+    private static final String PUT = "PUT";
+    private static final String DELETE = "DELETE";
+    private static final String CLEAR = "CLEAR";
+
+    private final File file;
+    private final SaveMode saveMode;
+    private final Durability durability;
+    private final SnapshotFormat snapshotFormat;
+    private final int compactionThreshold;
+    private final TaskJournal journal;
+    private final MetricsRegistry.Histogram snapshotWriteTime;
+    private final MetricsRegistry.Histogram snapshotSize;
+    private ExecutorService backgroundWriter;
+    private boolean snapshotDirty;
+    private boolean snapshotScheduled;
+    private volatile MappedSnapshot lazySnapshot;
+    private Future<?> compaction;
+    private Exception backgroundFailure;
+    private List<String> batchRecords;
+    private boolean batchDirty;
 
     public FileBackedTaskManager(File file) {
+        this(file, SaveMode.SNAPSHOT);
+    }
+
+    public FileBackedTaskManager(File file, SaveMode saveMode) {
+        this(file, saveMode, Durability.NONE);
+    }
+
+    public FileBackedTaskManager(File file, SaveMode saveMode, Durability durability) {
+        this(file, saveMode, durability, SnapshotFormat.CSV);
+    }
+
+    public FileBackedTaskManager(File file, SaveMode saveMode, Durability durability, SnapshotFormat snapshotFormat) {
+        this(file, saveMode, durability, snapshotFormat, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public FileBackedTaskManager(File file, SaveMode saveMode, Durability durability, SnapshotFormat snapshotFormat,
+                                 int compactionThreshold) {
+        this(file, saveMode, durability, snapshotFormat, compactionThreshold, MetricsRegistry.getDefault());
+    }
+
+    public FileBackedTaskManager(File file, SaveMode saveMode, Durability durability, SnapshotFormat snapshotFormat,
+                                 int compactionThreshold, MetricsRegistry metrics) {
         this.file = file;
+        this.saveMode = saveMode;
+        this.durability = durability;
+        this.snapshotFormat = snapshotFormat;
+        this.compactionThreshold = compactionThreshold;
+        this.journal = new TaskJournal(file, durability, metrics);
+        this.snapshotWriteTime = metrics.latency("kanban_snapshot_write_duration_seconds",
+                "Время записи снимка задач, включая force.");
+        this.snapshotSize = metrics.sizes("kanban_snapshot_size_bytes", "Размер записанного снимка задач.");
     }
 
     private void save() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            writer.write(HEADER);
+        materializeAll();
+        try {
+            boolean force = durability == Durability.GROUP_COMMIT || durability == Durability.SYNC;
+            writeSnapshot(file, allTasks(), snapshotFormat, force);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось сохранить задачи в файл: " + file.getName(), e);
+        }
+    }
 
-            for (Task task : tasks.values()) {
-                writer.write(toString(task) + "\n");
+    public synchronized void exportTo(File target, SnapshotFormat format) {
+        materializeAll();
+        try {
+            writeSnapshot(target, allTasks(), format, false);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось выгрузить задачи в файл: " + target.getName(), e);
+        }
+    }
+
+    private void writeSnapshot(File target, List<Task> items, SnapshotFormat format, boolean force)
+            throws IOException {
+        long start = System.nanoTime();
+        try (FileOutputStream out = new FileOutputStream(target)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+            if (format == SnapshotFormat.BINARY) {
+                BinarySnapshotCodec.write(buffered, items);
+            } else {
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(buffered, StandardCharsets.UTF_8));
+                writer.write(HEADER);
+                for (Task task : items) {
+                    writer.write(toString(task) + "\n");
+                }
+                writer.flush();
             }
-            for (Epic epic : epics.values()) {
-                writer.write(toString(epic) + "\n");
+            buffered.flush();
+            if (force) {
+                out.getChannel().force(false);
             }
-            for (Subtask subtask : subtasks.values()) {
-                writer.write(toString(subtask) + "\n");
+            snapshotSize.record(out.getChannel().position());
+        }
+        snapshotWriteTime.record(System.nanoTime() - start);
+    }
+
+    private void replaceSnapshot(List<Task> items) throws IOException {
+        File tempFile = new File(file.getPath() + ".tmp");
+        writeSnapshot(tempFile, items, snapshotFormat, durability != Durability.NONE);
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private List<Task> allTasks() {
+        List<Task> items = new ArrayList<>(tasks.size() + epics.size() + subtasks.size());
+        items.addAll(tasks.values());
+        items.addAll(epics.values());
+        items.addAll(subtasks.values());
+        return items;
+    }
+
+    // Срез под монитором не зависит от размера доски: задачи и подзадачи менеджер не меняет на месте, поэтому
+    // их таблицы берутся копией при записи, а копируются только эпики. Список строк собирается уже вне монитора.
+    private Supplier<List<Task>> captureTasks() {
+        materializeAll();
+        IntMap<Task> taskRows = tasks.snapshot();
+        IntMap<Subtask> subtaskRows = subtasks.snapshot();
+        List<Task> epicRows = new ArrayList<>(epics.size());
+        for (Epic epic : epics.values()) {
+            Epic copy = new Epic(epic.getId(), epic.getName(), epic.getDescription(), epic.getStatus());
+            copy.setStartTime(epic.getStartTime());
+            copy.setDuration(epic.getDuration());
+            epicRows.add(copy);
+        }
+        return () -> {
+            List<Task> items = new ArrayList<>(taskRows.size() + epicRows.size() + subtaskRows.size());
+            items.addAll(taskRows.values());
+            items.addAll(epicRows);
+            items.addAll(subtaskRows.values());
+            return items;
+        };
+    }
+
+    private TaskJournal.Commit persistPut(Task task) {
+        if (saveMode == SaveMode.JOURNAL) {
+            return appendRecords(List.of(PUT + "," + toString(task)));
+        }
+        persistSnapshot();
+        return null;
+    }
+
+    private TaskJournal.Commit persistDelete(List<Integer> ids) {
+        if (saveMode == SaveMode.JOURNAL) {
+            List<String> records = new ArrayList<>(ids.size());
+            for (int id : ids) {
+                records.add(DELETE + "," + id);
             }
+            return appendRecords(records);
+        }
+        persistSnapshot();
+        return null;
+    }
+
+    private TaskJournal.Commit persistClear(TaskType type) {
+        if (saveMode == SaveMode.JOURNAL) {
+            return appendRecords(List.of(CLEAR + "," + type));
+        }
+        persistSnapshot();
+        return null;
+    }
+
+    private void persistSnapshot() {
+        if (batchRecords != null) {
+            batchDirty = true;
+        } else if (saveMode == SaveMode.SNAPSHOT) {
+            save();
+        } else {
+            scheduleSnapshot();
+            rethrowBackgroundFailure();
+        }
+    }
+
+    private void rethrowBackgroundFailure() {
+        if (backgroundFailure != null) {
+            Exception failure = backgroundFailure;
+            backgroundFailure = null;
+            throw new ManagerSaveException("Не удалось записать снимок в фоне: " + file.getName(), failure);
+        }
+    }
+
+    // Вызывается под монитором; фиксации записи на диске ждёт awaitDurable, уже после выхода из него.
+    private TaskJournal.Commit appendRecords(List<String> records) {
+        if (batchRecords != null) {
+            batchRecords.addAll(records);
+            return null;
+        }
+        TaskJournal.Commit commit;
+        try {
+            commit = records.size() == 1 ? journal.write(records.get(0)) : journal.writeAll(records);
+            compactIfNeeded();
         } catch (IOException e) {
-            throw new ManagerSaveException("Не удалось сохранить задачи в файл: " + file.getName(), e);
+            throw new ManagerSaveException("Не удалось записать изменения в журнал: " + file.getName(), e);
+        }
+        rethrowBackgroundFailure();
+        return commit;
+    }
+
+    private void awaitDurable(TaskJournal.Commit commit) {
+        if (commit == null) {
+            return;
+        }
+        try {
+            journal.awaitDurable(commit);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось записать изменения в журнал: " + file.getName(), e);
+        }
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (journal.size() >= compactionThreshold && (compaction == null || compaction.isDone())) {
+            startCompaction();
+        }
+    }
+
+    private TaskJournal.Commit flushBatch(List<String> records, boolean dirty) {
+        if (saveMode != SaveMode.JOURNAL) {
+            if (dirty) {
+                persistSnapshot();
+            }
+            return null;
+        }
+        if (records.isEmpty()) {
+            return null;
+        }
+        return appendRecords(records);
+    }
+
+    private void startCompaction() throws IOException {
+        journal.rotate();
+        Supplier<List<Task>> rows = captureTasks();
+        compaction = backgroundWriter().submit(() -> {
+            try {
+                replaceSnapshot(rows.get());
+                journal.dropRotated();
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    backgroundFailure = e;
+                }
+            }
+        });
+    }
+
+    // Вызывается под монитором. Изменения, пришедшие во время записи снимка, попадают в одну следующую запись.
+    private void scheduleSnapshot() {
+        snapshotDirty = true;
+        if (!snapshotScheduled) {
+            snapshotScheduled = true;
+            backgroundWriter().execute(this::writeBackgroundSnapshots);
         }
     }
 
-    private String toString(Task task) {
+    private void writeBackgroundSnapshots() {
+        while (true) {
+            Supplier<List<Task>> rows;
+            synchronized (this) {
+                if (!snapshotDirty) {
+                    snapshotScheduled = false;
+                    notifyAll();
+                    return;
+                }
+                snapshotDirty = false;
+                rows = captureTasks();
+            }
+            try {
+                replaceSnapshot(rows.get());
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    backgroundFailure = e;
+                }
+            }
+        }
+    }
+
+    private ExecutorService backgroundWriter() {
+        if (backgroundWriter == null) {
+            backgroundWriter = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "snapshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return backgroundWriter;
+    }
+
+    public void close() {
+        try {
+            synchronized (this) {
+                while (snapshotScheduled) {
+                    wait();
+                }
+            }
+            if (compaction != null) {
+                compaction.get();
+            }
+            journal.close();
+            synchronized (this) {
+                rethrowBackgroundFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | IOException e) {
+            throw new ManagerSaveException("Не удалось закрыть журнал: " + file.getName(), e);
+        } finally {
+            if (backgroundWriter != null) {
+                backgroundWriter.shutdown();
+            }
+        }
+    }
+
+    static String toString(Task task) {
         String epicId = "";
         TaskType type;
         if (task instanceof Epic) {
@@ -66,7 +377,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         );
     }
 
-    private Task fromString(String value) {
+    static Task fromString(String value) {
         String[] parts = value.split(",");
         int id = Integer.parseInt(parts[0]);
         TaskType type = TaskType.valueOf(parts[1]);
@@ -91,49 +402,239 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         return task;
     }
 
+    private void putLoaded(Task task) {
+        if (task instanceof Epic) {
+            epics.put(task.getId(), (Epic) task);
+        } else if (task instanceof Subtask) {
+            subtasks.put(task.getId(), (Subtask) task);
+        } else {
+            tasks.put(task.getId(), task);
+        }
+    }
 
-    public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager manager = new FileBackedTaskManager(file);
-        try {
-            if (!Files.exists(file.toPath())) {
-                return manager;
+    private void applyRecord(String record) {
+        int separator = record.indexOf(',');
+        String operation = record.substring(0, separator);
+        String value = record.substring(separator + 1);
+        switch (operation) {
+            case PUT -> putLoaded(fromString(value));
+            case DELETE -> {
+                int id = Integer.parseInt(value);
+                tasks.remove(id);
+                epics.remove(id);
+                subtasks.remove(id);
             }
-            List<String> lines = Files.readAllLines(file.toPath());
-            int maxId = 0;
-
-            for (int i = 1; i < lines.size(); i++) {
-                String line = lines.get(i);
-                if (line.isEmpty()) {
-                    continue;
+            case CLEAR -> {
+                TaskType type = TaskType.valueOf(value);
+                if (type == TaskType.TASK) {
+                    tasks.clear();
+                } else {
+                    subtasks.clear();
+                    if (type == TaskType.EPIC) {
+                        epics.clear();
+                    }
                 }
+            }
+            default -> throw new IllegalArgumentException("Неизвестная запись журнала: " + record);
+        }
+    }
+
+    // Хвост без перевода строки — запись, оборванная сбоем, он отбрасывается; любая другая порча прерывает загрузку.
+    private void replay(File journalFile) throws IOException {
+        byte[] bytes = Files.readAllBytes(journalFile.toPath());
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+        for (String record : new String(bytes, 0, end, StandardCharsets.UTF_8).split("\n")) {
+            if (record.isEmpty()) {
+                continue;
+            }
+            try {
+                applyRecord(record);
+            } catch (RuntimeException e) {
+                throw new ManagerSaveException("Повреждённая запись в журнале " + journalFile.getName() + ": "
+                        + record, e);
+            }
+        }
+    }
 
-                Task task = manager.fromString(line);
-                if (task.getId() > maxId) {
-                    maxId = task.getId();
+    private void restoreRelations() {
+        int maxId = 0;
+        for (Task task : allTasks()) {
+            if (task.getId() > maxId) {
+                maxId = task.getId();
+            }
+        }
+        for (Subtask subtask : subtasks.values()) {
+            Epic epic = epics.get(subtask.getEpicID());
+            if (epic != null) {
+                epic.addSubtask(subtask);
+            }
+        }
+        for (Task task : tasks.values()) {
+            addPrioritized(task);
+        }
+        for (Subtask subtask : subtasks.values()) {
+            addPrioritized(subtask);
+        }
+        nextID = maxId + 1;
+    }
+
+    // Строки дочитываются из снимка под тем же монитором, что и изменения. Пока снимок не дочитан целиком,
+    // читатели берут монитор; после этого lazySnapshot равен null и проверка обходится без блокировки.
+    private void materializeTask(int id) {
+        if (lazySnapshot == null) {
+            return;
+        }
+        synchronized (this) {
+            MappedSnapshot snapshot = lazySnapshot;
+            if (snapshot != null && !tasks.containsKey(id)) {
+                String line = snapshot.line(TaskType.TASK, id);
+                if (line != null) {
+                    tasks.put(id, fromString(line));
                 }
+            }
+        }
+    }
 
-                if (task instanceof Epic) {
-                    manager.epics.put(task.getId(), (Epic) task);
-                } else if (task instanceof Subtask) {
-                    manager.subtasks.put(task.getId(), (Subtask) task);
-                } else {
-                    manager.tasks.put(task.getId(), task);
+    private void materializeSubtask(int id) {
+        if (lazySnapshot == null) {
+            return;
+        }
+        synchronized (this) {
+            loadSubtask(id);
+        }
+    }
+
+    private Subtask loadSubtask(int id) {
+        Subtask subtask = subtasks.get(id);
+        MappedSnapshot snapshot = lazySnapshot;
+        if (subtask == null && snapshot != null) {
+            String line = snapshot.line(TaskType.SUBTASK, id);
+            if (line != null) {
+                subtask = (Subtask) fromString(line);
+                subtasks.put(id, subtask);
+            }
+        }
+        return subtask;
+    }
+
+    private void materializeEpic(int id) {
+        if (lazySnapshot == null) {
+            return;
+        }
+        synchronized (this) {
+            loadEpic(id);
+        }
+    }
+
+    private void loadEpic(int id) {
+        MappedSnapshot snapshot = lazySnapshot;
+        if (snapshot == null || epics.containsKey(id)) {
+            return;
+        }
+        String line = snapshot.line(TaskType.EPIC, id);
+        if (line == null) {
+            return;
+        }
+        Epic epic = (Epic) fromString(line);
+        for (int subtaskId : snapshot.subtaskIds(id)) {
+            epic.addSubtask(loadSubtask(subtaskId));
+        }
+        epics.put(id, epic);
+    }
+
+    // После дочитывания на отображение файла не остаётся ссылок. Освободить его может только сборщик мусора,
+    // поэтому любая перезапись файла снимка начинается с materializeAll: иначе запись шла бы в файл,
+    // отображение которого ещё читается.
+    private void materializeAll() {
+        if (lazySnapshot == null) {
+            return;
+        }
+        synchronized (this) {
+            MappedSnapshot snapshot = lazySnapshot;
+            if (snapshot == null) {
+                return;
+            }
+            for (int id : snapshot.ids(TaskType.TASK)) {
+                if (!tasks.containsKey(id)) {
+                    tasks.put(id, fromString(snapshot.line(TaskType.TASK, id)));
                 }
-                if (task.getStartTime() != null && !(task instanceof Epic)) {
-                    manager.prioritizedTasks.add(task);
+            }
+            for (int id : snapshot.ids(TaskType.EPIC)) {
+                loadEpic(id);
+            }
+            for (int id : snapshot.ids(TaskType.SUBTASK)) {
+                loadSubtask(id);
+            }
+            for (Task task : tasks.values()) {
+                addPrioritized(task);
+            }
+            for (Subtask subtask : subtasks.values()) {
+                addPrioritized(subtask);
+            }
+            lazySnapshot = null;
+        }
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file) {
+        return loadFromFile(file, SaveMode.SNAPSHOT);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, SaveMode saveMode) {
+        return loadFromFile(file, saveMode, Durability.NONE);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, SaveMode saveMode, Durability durability) {
+        return loadFromFile(file, saveMode, durability, SnapshotFormat.CSV);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, SaveMode saveMode, Durability durability,
+                                                     SnapshotFormat snapshotFormat) {
+        return loadFromFile(file, saveMode, durability, snapshotFormat, MetricsRegistry.getDefault());
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, SaveMode saveMode, Durability durability,
+                                                     SnapshotFormat snapshotFormat, MetricsRegistry metrics) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, saveMode, durability, snapshotFormat,
+                DEFAULT_COMPACTION_THRESHOLD, metrics);
+        try {
+            List<File> journalFiles = manager.journal.existingFiles();
+            boolean binary = Files.exists(file.toPath()) && BinarySnapshotCodec.isBinary(file);
+            if (journalFiles.isEmpty() && !binary) {
+                if (Files.exists(file.toPath())) {
+                    manager.lazySnapshot = MappedSnapshot.open(file);
+                    manager.nextID = manager.lazySnapshot.maxId() + 1;
                 }
+                return manager;
             }
 
-            for (Subtask subtask : manager.subtasks.values()) {
-                Epic epic = manager.epics.get(subtask.getEpicID());
-                if (epic != null) {
-                    epic.addSubtask(subtask);
+            if (binary) {
+                try (InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+                    BinarySnapshotCodec.Contents contents = BinarySnapshotCodec.read(in);
+                    manager.tasks.putAll(contents.tasks);
+                    manager.epics.putAll(contents.epics);
+                    manager.subtasks.putAll(contents.subtasks);
                 }
+            } else if (Files.exists(file.toPath())) {
+                List<String> lines = Files.readAllLines(file.toPath());
+                for (int i = 1; i < lines.size(); i++) {
+                    String line = lines.get(i);
+                    if (!line.isEmpty()) {
+                        manager.putLoaded(fromString(line));
+                    }
+                }
+            }
+
+            for (File journalFile : journalFiles) {
+                manager.replay(journalFile);
             }
-            for (Epic epic : manager.epics.values()) {
-                epic.updateEpicTime();
+            manager.restoreRelations();
+            if (!journalFiles.isEmpty()) {
+                manager.replaceSnapshot(manager.allTasks());
+                manager.journal.deleteAll();
             }
-            manager.nextID = maxId + 1;
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -142,82 +643,260 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
 
     @Override
     public Task addTask(Task task) {
-        super.addTask(task);
-        save();
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            super.addTask(task);
+            commit = persistPut(task);
+        }
+        awaitDurable(commit);
         return task;
     }
 
     @Override
     public Epic addEpic(Epic epic) {
-        super.addEpic(epic);
-        save();
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            super.addEpic(epic);
+            commit = persistPut(epic);
+        }
+        awaitDurable(commit);
         return epic;
     }
 
     @Override
     public Subtask addSubtask(Subtask subtask) {
-        super.addSubtask(subtask);
-        save();
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            super.addSubtask(subtask);
+            commit = persistPut(subtask);
+        }
+        awaitDurable(commit);
         return subtask;
     }
 
     @Override
     public Task updateTask(Task task) {
-        super.updateTask(task);
-        save();
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            super.updateTask(task);
+            commit = persistPut(task);
+        }
+        awaitDurable(commit);
         return task;
     }
 
     @Override
     public Epic updateEpic(Epic epic) {
-        super.updateEpic(epic);
-        save();
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            Epic savedEpic = super.updateEpic(epic);
+            commit = persistPut(savedEpic);
+        }
+        awaitDurable(commit);
         return epic;
     }
 
     @Override
     public Subtask updateSubtask(Subtask subtask) {
-        super.updateSubtask(subtask);
-        save();
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            super.updateSubtask(subtask);
+            commit = persistPut(subtask);
+        }
+        awaitDurable(commit);
         return subtask;
     }
 
     @Override
     public void deleteTasks() {
-        super.deleteTasks();
-        save();
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            super.deleteTasks();
+            commit = persistClear(TaskType.TASK);
+        }
+        awaitDurable(commit);
     }
 
     @Override
     public void deleteEpics() {
-        super.deleteEpics();
-        save();
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            super.deleteEpics();
+            commit = persistClear(TaskType.EPIC);
+        }
+        awaitDurable(commit);
     }
 
     @Override
     public void deleteSubtasks() {
-        super.deleteSubtasks();
-        save();
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            super.deleteSubtasks();
+            commit = persistClear(TaskType.SUBTASK);
+        }
+        awaitDurable(commit);
     }
 
     @Override
     public Task deleteTaskByID(int id) {
-        Task removedTask = super.deleteTaskByID(id);
-        save();
+        Task removedTask;
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            removedTask = super.deleteTaskByID(id);
+            commit = persistDelete(List.of(id));
+        }
+        awaitDurable(commit);
         return removedTask;
     }
 
     @Override
     public Epic deleteEpicByID(int id) {
-        Epic removedEpic = super.deleteEpicByID(id);
-        save();
+        Epic removedEpic;
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            removedEpic = super.deleteEpicByID(id);
+            List<Integer> ids = new ArrayList<>();
+            ids.add(id);
+            removedEpic.getSubtaskList().forEach(subtask -> ids.add(subtask.getId()));
+            commit = persistDelete(ids);
+        }
+        awaitDurable(commit);
         return removedEpic;
     }
 
     @Override
     public Subtask deleteSubtaskByID(int id) {
-        Subtask removedSubtask = super.deleteSubtaskByID(id);
-        save();
+        Subtask removedSubtask;
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            removedSubtask = super.deleteSubtaskByID(id);
+            commit = persistDelete(List.of(id));
+        }
+        awaitDurable(commit);
         return removedSubtask;
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<BatchResult> applyBatch(List<BatchOperation> operations) {
+        List<BatchResult> results;
+        TaskJournal.Commit commit;
+        synchronized (this) {
+            materializeAll();
+            List<String> records = new ArrayList<>();
+            batchRecords = records;
+            batchDirty = false;
+            try {
+                results = super.applyBatch(operations);
+            } finally {
+                boolean dirty = batchDirty;
+                batchRecords = null;
+                batchDirty = false;
+                commit = flushBatch(records, dirty);
+            }
+        }
+        awaitDurable(commit);
+        return results;
+    }
+
+    @Override
+    public Task getTaskByID(int id) {
+        materializeTask(id);
+        return super.getTaskByID(id);
+    }
+
+    @Override
+    public Epic getEpicByID(int id) {
+        materializeEpic(id);
+        return super.getEpicByID(id);
+    }
+
+    @Override
+    public Subtask getSubtaskByID(int id) {
+        materializeSubtask(id);
+        return super.getSubtaskByID(id);
+    }
+
+    @Override
+    public LookupResult<Task> getTasksByIds(int[] ids) {
+        for (int id : ids) {
+            materializeTask(id);
+        }
+        return super.getTasksByIds(ids);
+    }
+
+    @Override
+    public LookupResult<Epic> getEpicsByIds(int[] ids) {
+        for (int id : ids) {
+            materializeEpic(id);
+        }
+        return super.getEpicsByIds(ids);
+    }
+
+    @Override
+    public LookupResult<Subtask> getSubtasksByIds(int[] ids) {
+        for (int id : ids) {
+            materializeSubtask(id);
+        }
+        return super.getSubtasksByIds(ids);
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        materializeAll();
+        return super.getTasks();
+    }
+
+    @Override
+    public List<Epic> getEpics() {
+        materializeAll();
+        return super.getEpics();
+    }
+
+    @Override
+    public List<Subtask> getSubtasks() {
+        materializeAll();
+        return super.getSubtasks();
+    }
+
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) {
+        materializeEpic(epicId);
+        return super.getEpicSubtasks(epicId);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        materializeAll();
+        return super.getPrioritizedTasks();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        materializeAll();
+        return super.getPrioritizedTasks(from, to, limit);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksAfter(LocalDateTime cursorStart, int cursorId, LocalDateTime to, int limit) {
+        materializeAll();
+        return super.getPrioritizedTasksAfter(cursorStart, cursorId, to, limit);
+    }
+
+    @Override
+    public long getVersion(TaskCollection collection) {
+        materializeAll();
+        return super.getVersion(collection);
+    }
+}
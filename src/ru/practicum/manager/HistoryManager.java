@@ -9,4 +9,6 @@ public interface HistoryManager {
     void remove(int id);
 
     List<Task> getHistory();
+
+    long getVersion();
 }
\ No newline at end of file
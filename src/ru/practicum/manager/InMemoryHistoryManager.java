@@ -2,60 +2,94 @@ package ru.practicum.manager;
 
 import ru.practicum.task.Task;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 public class InMemoryHistoryManager implements HistoryManager {
 
-    private final Map<Integer, Node> nodeMap = new HashMap<>();
-    private Node head;
-    private Node tail;
+    public static final int DEFAULT_CAPACITY = 1_000;
+    private static final int NONE = -1;
 
-    private static class Node {
-        Task data;
-        Node next;
-        Node prev;
+    private final Task[] data;
+    private final int[] prev;
+    private final int[] next;
+    private final Integer[] slotNumbers;
+    private final IntMap<Integer> slotById;
+    private int head = NONE;
+    private int tail = NONE;
+    private int free;
+    private long version;
+    private long snapshotVersion = -1;
+    private List<Task> snapshot;
 
-        public Node(Node prev, Task data, Node next) {
-            this.data = data;
-            this.next = next;
-            this.prev = prev;
-        }
+    public InMemoryHistoryManager() {
+        this(DEFAULT_CAPACITY);
     }
 
-    private void linkLast(Task task) {
-        final Node oldTail = tail;
-        final Node newNode = new Node(oldTail, task, null);
-        tail = newNode;
-        if (oldTail == null) {
-            head = newNode;
-        } else {
-            oldTail.next = newNode;
+    public InMemoryHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость истории должна быть положительной: " + capacity);
         }
-        nodeMap.put(task.getId(), newNode);
+        data = new Task[capacity];
+        prev = new int[capacity];
+        next = new int[capacity];
+        slotNumbers = new Integer[capacity];
+        slotById = new IntMap<>(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            slotNumbers[slot] = slot;
+            next[slot] = slot + 1 < capacity ? slot + 1 : NONE;
+        }
+        free = 0;
     }
 
-    private void removeNode(Node node) {
-        final Node next = node.next;
-        final Node prev = node.prev;
+    public int getCapacity() {
+        return data.length;
+    }
 
-        if (prev == null) {
-            head = next;
+    private void linkLast(int slot, Task task) {
+        data[slot] = task;
+        prev[slot] = tail;
+        next[slot] = NONE;
+        if (tail == NONE) {
+            head = slot;
         } else {
-            prev.next = next;
-            node.prev = null;
+            next[tail] = slot;
         }
+        tail = slot;
+        slotById.put(task.getId(), slotNumbers[slot]);
+        version++;
+    }
 
-        if (next == null) {
-            tail = prev;
+    private void unlink(int slot) {
+        if (prev[slot] == NONE) {
+            head = next[slot];
+        } else {
+            next[prev[slot]] = next[slot];
+        }
+        if (next[slot] == NONE) {
+            tail = prev[slot];
         } else {
-            next.prev = prev;
-            node.next = null;
+            prev[next[slot]] = prev[slot];
         }
+        slotById.remove(data[slot].getId());
+        data[slot] = null;
+        version++;
+    }
 
-        nodeMap.remove(node.data.getId());
-        node.data = null;
+    private void release(int slot) {
+        next[slot] = free;
+        free = slot;
+    }
+
+    private int acquire() {
+        if (free == NONE) {
+            int evicted = head;
+            unlink(evicted);
+            return evicted;
+        }
+        int slot = free;
+        free = next[slot];
+        return slot;
     }
 
     @Override
@@ -63,27 +97,39 @@ public class InMemoryHistoryManager implements HistoryManager {
         if (task == null) {
             return;
         }
-        if (nodeMap.containsKey(task.getId())) {
-            removeNode(nodeMap.get(task.getId()));
+        Integer slot = slotById.get(task.getId());
+        if (slot != null) {
+            unlink(slot);
+            linkLast(slot, task);
+            return;
         }
-        linkLast(task);
+        linkLast(acquire(), task);
     }
 
     @Override
     public void remove(int id) {
-        if (nodeMap.containsKey(id)) {
-            removeNode(nodeMap.get(id));
+        Integer slot = slotById.get(id);
+        if (slot != null) {
+            unlink(slot);
+            release(slot);
         }
     }
 
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public List<Task> getHistory() {
-        List<Task> history = new ArrayList<>();
-        Node current = head;
-        while (current != null) {
-            history.add(current.data);
-            current = current.next;
+        if (snapshotVersion != version) {
+            List<Task> history = new ArrayList<>(slotById.size());
+            for (int slot = head; slot != NONE; slot = next[slot]) {
+                history.add(data[slot]);
+            }
+            snapshot = Collections.unmodifiableList(history);
+            snapshotVersion = version;
         }
-        return history;
+        return snapshot;
     }
-}
\ No newline at end of file
+}
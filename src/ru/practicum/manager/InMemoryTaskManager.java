@@ -1,56 +1,113 @@
 package ru.practicum.manager;
 
+import ru.practicum.enums.BatchStatus;
 import ru.practicum.enums.Status;
+import ru.practicum.enums.TaskCollection;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.exception.TaskValidationException;
 import ru.practicum.task.Epic;
 import ru.practicum.task.Subtask;
 import ru.practicum.task.Task;
+import ru.practicum.task.TaskType;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
 public class InMemoryTaskManager implements TaskManager {
 
-    protected final Map<Integer, Task> tasks = new HashMap<>();
-    protected final Map<Integer, Epic> epics = new HashMap<>();
-    protected final Map<Integer, Subtask> subtasks = new HashMap<>();
-    protected final HistoryManager historyManager = Managers.getDefaultHistory();
+    private static final Comparator<Task> BY_ID = Comparator.comparingInt(Task::getId);
 
-    protected final Set<Task> prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime,
-            Comparator.nullsLast(Comparator.naturalOrder())));
+    protected final IntMap<Task> tasks = new IntMap<>();
+    protected final IntMap<Epic> epics = new IntMap<>();
+    protected final IntMap<Subtask> subtasks = new IntMap<>();
+    protected final HistoryManager historyManager;
+
+    // id разводит задачи нулевой длительности с одинаковым началом: они не пересекаются, но без него
+    // TreeSet считал бы их одной задачей, а курсор выборки не мог бы указать на одну из них.
+    protected final NavigableSet<Task> prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime,
+            Comparator.nullsLast(Comparator.naturalOrder())).thenComparingInt(Task::getId));
+    private final ScheduleIndex scheduleIndex = new ScheduleIndex();
+    private long prioritizedVersion;
+    private long epicEdits;
+
+    private final SnapshotCache<Task> taskSnapshot = new SnapshotCache<>(BY_ID);
+    private final SnapshotCache<Epic> epicSnapshot = new SnapshotCache<>(BY_ID);
+    private final SnapshotCache<Subtask> subtaskSnapshot = new SnapshotCache<>(BY_ID);
+    private final SnapshotCache<Task> prioritizedSnapshot = new SnapshotCache<>();
 
     protected int nextID = 1;
 
+    public InMemoryTaskManager() {
+        this(Managers.getDefaultHistory());
+    }
+
+    public InMemoryTaskManager(HistoryManager historyManager) {
+        this.historyManager = historyManager;
+    }
+
     protected int getNextID() {
         return nextID++;
     }
 
     private void validate(Task task) {
-        if (isOverlapping(task)) {
+        if (scheduleIndex.overlaps(task)) {
             throw new TaskValidationException("Задача пересекается по времени с существующей!");
         }
     }
 
-    private boolean isOverlapping(Task newTask) {
-        if (newTask.getStartTime() == null) {
-            return false;
+    protected void addPrioritized(Task task) {
+        if (task.getStartTime() != null) {
+            prioritizedTasks.add(task);
+            scheduleIndex.add(task);
+            prioritizedVersion++;
         }
+    }
 
-        return prioritizedTasks.stream()
-                .filter(existingTask -> existingTask.getId() != newTask.getId() && existingTask.getStartTime() != null)
-                .anyMatch(existingTask -> {
-                    LocalDateTime start1 = newTask.getStartTime();
-                    LocalDateTime end1 = newTask.getEndTime();
-                    LocalDateTime start2 = existingTask.getStartTime();
-                    LocalDateTime end2 = existingTask.getEndTime();
-                    return start1.isBefore(end2) && start2.isBefore(end1);
-                });
+    protected void removePrioritized(Task task) {
+        if (task.getStartTime() != null) {
+            prioritizedTasks.remove(task);
+            prioritizedVersion++;
+        }
+        scheduleIndex.remove(task.getId());
     }
 
     @Override
     public List<Task> getPrioritizedTasks() {
-        return new ArrayList<>(prioritizedTasks);
+        return prioritizedSnapshot.get(prioritizedVersion, prioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        NavigableSet<Task> range = from == null ? prioritizedTasks
+                : prioritizedTasks.tailSet(bound(from, Integer.MIN_VALUE), true);
+        return firstBefore(range, to, limit);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksAfter(LocalDateTime cursorStart, int cursorId, LocalDateTime to, int limit) {
+        return firstBefore(prioritizedTasks.tailSet(bound(cursorStart, cursorId), false), to, limit);
+    }
+
+    private List<Task> firstBefore(NavigableSet<Task> range, LocalDateTime to, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Лимит выборки должен быть положительным: " + limit);
+        }
+        if (to != null) {
+            range = range.headSet(bound(to, Integer.MIN_VALUE), false);
+        }
+        List<Task> result = new ArrayList<>(Math.min(limit, 64));
+        for (Task task : range) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    private static Task bound(LocalDateTime startTime, int id) {
+        return new Task(id, null, null, Status.NEW, startTime, Duration.ZERO);
     }
 
     @Override
@@ -58,9 +115,7 @@ public class InMemoryTaskManager implements TaskManager {
         validate(task);
         task.setId(getNextID());
         tasks.put(task.getId(), task);
-        if (task.getStartTime() != null) {
-            prioritizedTasks.add(task);
-        }
+        addPrioritized(task);
         return task;
     }
 
@@ -81,11 +136,7 @@ public class InMemoryTaskManager implements TaskManager {
         subtask.setId(getNextID());
         subtasks.put(subtask.getId(), subtask);
         epic.addSubtask(subtask);
-        if (subtask.getStartTime() != null) {
-            prioritizedTasks.add(subtask);
-        }
-        updateEpicStatus(epic);
-        updateEpicTime(epic);
+        addPrioritized(subtask);
         return subtask;
     }
 
@@ -96,13 +147,9 @@ public class InMemoryTaskManager implements TaskManager {
         }
         validate(task);
         Task oldTask = tasks.get(task.getId());
-        if (oldTask.getStartTime() != null) {
-            prioritizedTasks.remove(oldTask);
-        }
+        removePrioritized(oldTask);
         tasks.put(task.getId(), task);
-        if (task.getStartTime() != null) {
-            prioritizedTasks.add(task);
-        }
+        addPrioritized(task);
         return task;
     }
 
@@ -114,6 +161,7 @@ public class InMemoryTaskManager implements TaskManager {
         }
         savedEpic.setName(epic.getName());
         savedEpic.setDescription(epic.getDescription());
+        epicEdits++;
         return savedEpic;
     }
 
@@ -128,15 +176,14 @@ public class InMemoryTaskManager implements TaskManager {
         }
         validate(subtask);
         Subtask oldSubtask = subtasks.get(subtask.getId());
-        if (oldSubtask.getStartTime() != null) {
-            prioritizedTasks.remove(oldSubtask);
-        }
+        removePrioritized(oldSubtask);
         subtasks.put(subtask.getId(), subtask);
-        if (subtask.getStartTime() != null) {
-            prioritizedTasks.add(subtask);
+        addPrioritized(subtask);
+        Epic oldEpic = epics.get(oldSubtask.getEpicID());
+        if (oldEpic != null && oldEpic != epic) {
+            oldEpic.removeSubtask(oldSubtask);
         }
-        updateEpicStatus(epic);
-        updateEpicTime(epic);
+        epic.updateSubtask(subtask);
         return subtask;
     }
 
@@ -170,19 +217,48 @@ public class InMemoryTaskManager implements TaskManager {
         return subtask;
     }
 
+    @Override
+    public LookupResult<Task> getTasksByIds(int[] ids) {
+        return lookup(tasks, ids);
+    }
+
+    @Override
+    public LookupResult<Epic> getEpicsByIds(int[] ids) {
+        return lookup(epics, ids);
+    }
+
+    @Override
+    public LookupResult<Subtask> getSubtasksByIds(int[] ids) {
+        return lookup(subtasks, ids);
+    }
+
+    private static <T extends Task> LookupResult<T> lookup(IntMap<T> source, int[] ids) {
+        List<T> found = new ArrayList<>(ids.length);
+        List<Integer> missing = new ArrayList<>();
+        for (int id : ids) {
+            T item = source.get(id);
+            if (item != null) {
+                found.add(item);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new LookupResult<>(found, missing);
+    }
+
     @Override
     public List<Task> getTasks() {
-        return new ArrayList<>(tasks.values());
+        return taskSnapshot.get(tasks.version(), tasks.values());
     }
 
     @Override
     public List<Epic> getEpics() {
-        return new ArrayList<>(epics.values());
+        return epicSnapshot.get(epics.version(), epics.values());
     }
 
     @Override
     public List<Subtask> getSubtasks() {
-        return new ArrayList<>(subtasks.values());
+        return subtaskSnapshot.get(subtasks.version(), subtasks.values());
     }
 
     @Override
@@ -197,9 +273,7 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public void deleteTasks() {
         tasks.values().forEach(task -> {
-            if (task.getStartTime() != null) {
-                prioritizedTasks.remove(task);
-            }
+            removePrioritized(task);
             historyManager.remove(task.getId());
         });
         tasks.clear();
@@ -211,27 +285,22 @@ public class InMemoryTaskManager implements TaskManager {
             historyManager.remove(epic.getId());
             epic.getSubtaskList().forEach(subtask -> {
                 historyManager.remove(subtask.getId());
-                if (subtask.getStartTime() != null) {
-                    prioritizedTasks.remove(subtask);
-                }
+                removePrioritized(subtask);
             });
         });
         subtasks.clear();
+        epics.clear();
     }
 
     @Override
     public void deleteSubtasks() {
         subtasks.values().forEach(subtask -> {
             historyManager.remove(subtask.getId());
-            if (subtask.getStartTime() != null) {
-                prioritizedTasks.remove(subtask);
-            }
+            removePrioritized(subtask);
         });
         subtasks.clear();
         for (Epic epic : epics.values()) {
             epic.clearSubtasks();
-            updateEpicStatus(epic);
-            updateEpicTime(epic);
         }
     }
 
@@ -242,9 +311,7 @@ public class InMemoryTaskManager implements TaskManager {
             throw new NotFoundException("Задача с id=" + id + " для удаления не найдена.");
         }
         historyManager.remove(id);
-        if (removedTask.getStartTime() != null) {
-            prioritizedTasks.remove(removedTask);
-        }
+        removePrioritized(removedTask);
         return removedTask;
     }
 
@@ -258,9 +325,7 @@ public class InMemoryTaskManager implements TaskManager {
         removedEpic.getSubtaskList().forEach(subtask -> {
             subtasks.remove(subtask.getId());
             historyManager.remove(subtask.getId());
-            if (subtask.getStartTime() != null) {
-                prioritizedTasks.remove(subtask);
-            }
+            removePrioritized(subtask);
         });
         return removedEpic;
     }
@@ -274,12 +339,8 @@ public class InMemoryTaskManager implements TaskManager {
         Epic epic = epics.get(removedSubtask.getEpicID());
         epic.removeSubtask(removedSubtask);
         subtasks.remove(id);
-        updateEpicStatus(epic);
-        updateEpicTime(epic);
         historyManager.remove(id);
-        if (removedSubtask.getStartTime() != null) {
-            prioritizedTasks.remove(removedSubtask);
-        }
+        removePrioritized(removedSubtask);
         return removedSubtask;
     }
 
@@ -288,33 +349,52 @@ public class InMemoryTaskManager implements TaskManager {
         return historyManager.getHistory();
     }
 
-    private void updateEpicStatus(Epic epic) {
-        if (epic.getSubtaskList().isEmpty()) {
-            epic.setStatus(Status.NEW);
-            return;
-        }
-
-        int newCount = 0;
-        int doneCount = 0;
-
-        for (Subtask subtask : epic.getSubtaskList()) {
-            if (subtask.getStatus() == Status.NEW) {
-                newCount++;
-            } else if (subtask.getStatus() == Status.DONE) {
-                doneCount++;
+    @Override
+    public List<BatchResult> applyBatch(List<BatchOperation> operations) {
+        List<BatchResult> results = new ArrayList<>(operations.size());
+        for (BatchOperation operation : operations) {
+            try {
+                results.add(BatchResult.ok(apply(operation)));
+            } catch (NotFoundException e) {
+                results.add(BatchResult.failed(BatchStatus.NOT_FOUND, e.getMessage()));
+            } catch (TaskValidationException e) {
+                results.add(BatchResult.failed(BatchStatus.OVERLAP, e.getMessage()));
             }
         }
+        return results;
+    }
 
-        if (doneCount == epic.getSubtaskList().size()) {
-            epic.setStatus(Status.DONE);
-        } else if (newCount == epic.getSubtaskList().size()) {
-            epic.setStatus(Status.NEW);
-        } else {
-            epic.setStatus(Status.IN_PROGRESS);
-        }
+    private Task apply(BatchOperation operation) {
+        TaskType type = operation.getType();
+        return switch (operation.getAction()) {
+            case CREATE -> switch (type) {
+                case TASK -> addTask(operation.getTask());
+                case EPIC -> addEpic((Epic) operation.getTask());
+                case SUBTASK -> addSubtask((Subtask) operation.getTask());
+            };
+            case UPDATE -> switch (type) {
+                case TASK -> updateTask(operation.getTask());
+                case EPIC -> updateEpic((Epic) operation.getTask());
+                case SUBTASK -> updateSubtask((Subtask) operation.getTask());
+            };
+            case DELETE -> switch (type) {
+                case TASK -> deleteTaskByID(operation.getId());
+                case EPIC -> deleteEpicByID(operation.getId());
+                case SUBTASK -> deleteSubtaskByID(operation.getId());
+            };
+        };
     }
 
-    private void updateEpicTime(Epic epic) {
-        epic.updateEpicTime();
+    // Эпики пересчитывают статус и время от подзадач на месте, поэтому их версия включает версию подзадач;
+    // история держит те же объекты эпиков и потому зависит и от неё. Сумма растущих счётчиков тоже растёт.
+    @Override
+    public long getVersion(TaskCollection collection) {
+        return switch (collection) {
+            case TASKS -> tasks.version();
+            case SUBTASKS -> subtasks.version();
+            case EPICS -> epics.version() + subtasks.version() + epicEdits;
+            case PRIORITIZED -> prioritizedVersion;
+            case HISTORY -> historyManager.getVersion() + getVersion(TaskCollection.EPICS);
+        };
     }
 }
\ No newline at end of file
@@ -0,0 +1,268 @@
+package ru.practicum.manager;
+
+import ru.practicum.enums.TaskCollection;
+import ru.practicum.metrics.MetricsRegistry;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class InstrumentedTaskManager implements TaskManager {
+
+    private final TaskManager delegate;
+    private final MetricsRegistry registry;
+    private final Operation addTask;
+    private final Operation addEpic;
+    private final Operation addSubtask;
+    private final Operation updateTask;
+    private final Operation updateEpic;
+    private final Operation updateSubtask;
+    private final Operation getTaskByID;
+    private final Operation getEpicByID;
+    private final Operation getSubtaskByID;
+    private final Operation getTasksByIds;
+    private final Operation getEpicsByIds;
+    private final Operation getSubtasksByIds;
+    private final Operation getTasks;
+    private final Operation getEpics;
+    private final Operation getSubtasks;
+    private final Operation getEpicSubtasks;
+    private final Operation deleteTasks;
+    private final Operation deleteEpics;
+    private final Operation deleteSubtasks;
+    private final Operation deleteTaskByID;
+    private final Operation deleteEpicByID;
+    private final Operation deleteSubtaskByID;
+    private final Operation getHistory;
+    private final Operation applyBatch;
+    private final Operation getPrioritizedTasks;
+    private final Operation getPrioritizedRange;
+    private final Operation getPrioritizedTasksAfter;
+    private final Operation getVersion;
+
+    private static final class Operation {
+        final MetricsRegistry.Histogram latency;
+        final MetricsRegistry.Counter errors;
+
+        Operation(MetricsRegistry.Histogram latency, MetricsRegistry.Counter errors) {
+            this.latency = latency;
+            this.errors = errors;
+        }
+    }
+
+    public InstrumentedTaskManager(TaskManager delegate) {
+        this(delegate, MetricsRegistry.getDefault());
+    }
+
+    public InstrumentedTaskManager(TaskManager delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+        addTask = operation("addTask");
+        addEpic = operation("addEpic");
+        addSubtask = operation("addSubtask");
+        updateTask = operation("updateTask");
+        updateEpic = operation("updateEpic");
+        updateSubtask = operation("updateSubtask");
+        getTaskByID = operation("getTaskByID");
+        getEpicByID = operation("getEpicByID");
+        getSubtaskByID = operation("getSubtaskByID");
+        getTasksByIds = operation("getTasksByIds");
+        getEpicsByIds = operation("getEpicsByIds");
+        getSubtasksByIds = operation("getSubtasksByIds");
+        getTasks = operation("getTasks");
+        getEpics = operation("getEpics");
+        getSubtasks = operation("getSubtasks");
+        getEpicSubtasks = operation("getEpicSubtasks");
+        deleteTasks = operation("deleteTasks");
+        deleteEpics = operation("deleteEpics");
+        deleteSubtasks = operation("deleteSubtasks");
+        deleteTaskByID = operation("deleteTaskByID");
+        deleteEpicByID = operation("deleteEpicByID");
+        deleteSubtaskByID = operation("deleteSubtaskByID");
+        getHistory = operation("getHistory");
+        applyBatch = operation("applyBatch");
+        getPrioritizedTasks = operation("getPrioritizedTasks");
+        getPrioritizedRange = operation("getPrioritizedRange");
+        getPrioritizedTasksAfter = operation("getPrioritizedTasksAfter");
+        getVersion = operation("getVersion");
+    }
+
+    private Operation operation(String name) {
+        return new Operation(
+                registry.latency("kanban_manager_operation_duration_seconds",
+                        "Время выполнения операции менеджера задач.", "operation", name),
+                registry.counter("kanban_manager_operation_errors_total",
+                        "Операции менеджера, завершившиеся исключением.", "operation", name));
+    }
+
+    private <T> T timed(Operation operation, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            operation.errors.increment();
+            throw e;
+        } finally {
+            operation.latency.record(System.nanoTime() - start);
+        }
+    }
+
+    private void timed(Operation operation, Runnable action) {
+        timed(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    @Override
+    public Task addTask(Task task) {
+        return timed(addTask, () -> delegate.addTask(task));
+    }
+
+    @Override
+    public Epic addEpic(Epic epic) {
+        return timed(addEpic, () -> delegate.addEpic(epic));
+    }
+
+    @Override
+    public Subtask addSubtask(Subtask subtask) {
+        return timed(addSubtask, () -> delegate.addSubtask(subtask));
+    }
+
+    @Override
+    public Task updateTask(Task task) {
+        return timed(updateTask, () -> delegate.updateTask(task));
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        return timed(updateEpic, () -> delegate.updateEpic(epic));
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        return timed(updateSubtask, () -> delegate.updateSubtask(subtask));
+    }
+
+    @Override
+    public Task getTaskByID(int id) {
+        return timed(getTaskByID, () -> delegate.getTaskByID(id));
+    }
+
+    @Override
+    public Epic getEpicByID(int id) {
+        return timed(getEpicByID, () -> delegate.getEpicByID(id));
+    }
+
+    @Override
+    public Subtask getSubtaskByID(int id) {
+        return timed(getSubtaskByID, () -> delegate.getSubtaskByID(id));
+    }
+
+    @Override
+    public LookupResult<Task> getTasksByIds(int[] ids) {
+        return timed(getTasksByIds, () -> delegate.getTasksByIds(ids));
+    }
+
+    @Override
+    public LookupResult<Epic> getEpicsByIds(int[] ids) {
+        return timed(getEpicsByIds, () -> delegate.getEpicsByIds(ids));
+    }
+
+    @Override
+    public LookupResult<Subtask> getSubtasksByIds(int[] ids) {
+        return timed(getSubtasksByIds, () -> delegate.getSubtasksByIds(ids));
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        return timed(getTasks, () -> delegate.getTasks());
+    }
+
+    @Override
+    public List<Epic> getEpics() {
+        return timed(getEpics, () -> delegate.getEpics());
+    }
+
+    @Override
+    public List<Subtask> getSubtasks() {
+        return timed(getSubtasks, () -> delegate.getSubtasks());
+    }
+
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) {
+        return timed(getEpicSubtasks, () -> delegate.getEpicSubtasks(epicId));
+    }
+
+    @Override
+    public void deleteTasks() {
+        timed(deleteTasks, () -> delegate.deleteTasks());
+    }
+
+    @Override
+    public void deleteEpics() {
+        timed(deleteEpics, () -> delegate.deleteEpics());
+    }
+
+    @Override
+    public void deleteSubtasks() {
+        timed(deleteSubtasks, () -> delegate.deleteSubtasks());
+    }
+
+    @Override
+    public Task deleteTaskByID(int id) {
+        return timed(deleteTaskByID, () -> delegate.deleteTaskByID(id));
+    }
+
+    @Override
+    public Epic deleteEpicByID(int id) {
+        return timed(deleteEpicByID, () -> delegate.deleteEpicByID(id));
+    }
+
+    @Override
+    public Subtask deleteSubtaskByID(int id) {
+        return timed(deleteSubtaskByID, () -> delegate.deleteSubtaskByID(id));
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return timed(getHistory, () -> delegate.getHistory());
+    }
+
+    @Override
+    public List<BatchResult> applyBatch(List<BatchOperation> operations) {
+        return timed(applyBatch, () -> delegate.applyBatch(operations));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return timed(getPrioritizedTasks, () -> delegate.getPrioritizedTasks());
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        return timed(getPrioritizedRange, () -> delegate.getPrioritizedTasks(from, to, limit));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksAfter(LocalDateTime cursorStart, int cursorId, LocalDateTime to, int limit) {
+        return timed(getPrioritizedTasksAfter,
+                () -> delegate.getPrioritizedTasksAfter(cursorStart, cursorId, to, limit));
+    }
+
+    @Override
+    public long getVersion(TaskCollection collection) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getVersion(collection);
+        } catch (RuntimeException e) {
+            getVersion.errors.increment();
+            throw e;
+        } finally {
+            getVersion.latency.record(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package ru.practicum.manager;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Открытая адресация по схеме Robin Hood: id не упаковываются в Integer, null как значение не хранится,
+// порядок обхода не определён.
+final class IntMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private int modCount;
+    private long version;
+    private boolean shared;
+    private Values valuesView;
+
+    IntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    IntMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    private IntMap(IntMap<V> source) {
+        keys = source.keys;
+        values = source.values;
+        mask = source.mask;
+        size = source.size;
+        resizeAt = source.resizeAt;
+        version = source.version;
+        shared = true;
+    }
+
+    // Неизменяемый срез за O(1): массивы общие, и та копия, что меняется первой, сначала копирует их себе.
+    IntMap<V> snapshot() {
+        shared = true;
+        return new IntMap<>(this);
+    }
+
+    private void unshare() {
+        if (shared) {
+            keys = keys.clone();
+            values = values.clone();
+            shared = false;
+        }
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR);
+        int capacity = Integer.highestOneBit((int) Math.min(needed, 1 << 30));
+        return Math.max(capacity < needed ? capacity << 1 : capacity, 2);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        shared = false;
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int distance(int index) {
+        return (index - (hash(keys[index]) & mask)) & mask;
+    }
+
+    private int indexOf(int key) {
+        int index = hash(key) & mask;
+        for (int distance = 0; values[index] != null && distance <= distance(index); distance++) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("IntMap не хранит null");
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            unshare();
+            V previous = (V) values[index];
+            values[index] = value;
+            version++;
+            return previous;
+        }
+        if (size + 1 > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        unshare();
+        insert(key, value);
+        size++;
+        modCount++;
+        version++;
+        return null;
+    }
+
+    private void insert(int key, Object value) {
+        int index = hash(key) & mask;
+        int distance = 0;
+        while (values[index] != null) {
+            int existing = distance(index);
+            if (existing < distance) {
+                int displacedKey = keys[index];
+                Object displacedValue = values[index];
+                keys[index] = key;
+                values[index] = value;
+                key = displacedKey;
+                value = displacedValue;
+                distance = existing;
+            }
+            index = (index + 1) & mask;
+            distance++;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    void putAll(IntMap<? extends V> other) {
+        if (size + other.size > resizeAt) {
+            rehash(tableSizeFor(size + other.size));
+        }
+        for (int i = 0; i < other.values.length; i++) {
+            if (other.values[i] != null) {
+                @SuppressWarnings("unchecked")
+                V value = (V) other.values[i];
+                put(other.keys[i], value);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        unshare();
+        V previous = (V) values[index];
+        shiftBack(index);
+        size--;
+        modCount++;
+        version++;
+        return previous;
+    }
+
+    private void shiftBack(int hole) {
+        int next = (hole + 1) & mask;
+        while (values[next] != null && distance(next) > 0) {
+            keys[hole] = keys[next];
+            values[hole] = values[next];
+            hole = next;
+            next = (next + 1) & mask;
+        }
+        values[hole] = null;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        if (size == 0) {
+            return;
+        }
+        if (shared) {
+            allocate(keys.length);
+        } else {
+            Arrays.fill(values, null);
+        }
+        size = 0;
+        modCount++;
+        version++;
+    }
+
+    // Растёт при любом изменении, включая замену значения по существующему ключу.
+    long version() {
+        return version;
+    }
+
+    Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new Values();
+        }
+        return valuesView;
+    }
+
+    private final class Values extends AbstractCollection<V> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object[] toArray() {
+            Object[] result = new Object[size];
+            int position = 0;
+            for (Object value : values) {
+                if (value != null) {
+                    result[position++] = value;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<>() {
+                private final int expectedModCount = modCount;
+                private int index = advance(0);
+
+                private int advance(int from) {
+                    while (from < values.length && values[from] == null) {
+                        from++;
+                    }
+                    return from;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return index < values.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V next() {
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (index >= values.length) {
+                        throw new NoSuchElementException();
+                    }
+                    V value = (V) values[index];
+                    index = advance(index + 1);
+                    return value;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.manager;
+
+import java.util.List;
+
+public final class LookupResult<T> {
+
+    private final List<T> found;
+    private final List<Integer> missing;
+
+    public LookupResult(List<T> found, List<Integer> missing) {
+        this.found = found;
+        this.missing = missing;
+    }
+
+    public List<T> getFound() {
+        return found;
+    }
+
+    public List<Integer> getMissing() {
+        return missing;
+    }
+}
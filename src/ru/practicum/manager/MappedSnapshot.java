@@ -0,0 +1,125 @@
+package ru.practicum.manager;
+
+import ru.practicum.task.TaskType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Отображение не закрывается явно: его освобождает сборщик мусора, когда на снимок не остаётся ссылок.
+// Строки с окончанием CRLF читаются без '\r'.
+class MappedSnapshot {
+
+    private final MappedByteBuffer buffer;
+    private final Map<Integer, Integer> taskOffsets = new HashMap<>();
+    private final Map<Integer, Integer> epicOffsets = new HashMap<>();
+    private final Map<Integer, Integer> subtaskOffsets = new HashMap<>();
+    private final Map<Integer, List<Integer>> subtaskIdsByEpic = new HashMap<>();
+    private int maxId;
+
+    private MappedSnapshot(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        int position = lineEnd(0) + 1;
+        while (position < buffer.limit()) {
+            int end = lineEnd(position);
+            int contentEnd = contentEnd(position, end);
+            if (contentEnd > position) {
+                index(position, contentEnd);
+            }
+            position = end + 1;
+        }
+    }
+
+    static MappedSnapshot open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new MappedSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private void index(int start, int end) {
+        int idEnd = indexOf(start, end);
+        int id = parseInt(start, idEnd);
+        if (id > maxId) {
+            maxId = id;
+        }
+        switch (buffer.get(idEnd + 1)) {
+            case 'E' -> epicOffsets.put(id, start);
+            case 'S' -> {
+                subtaskOffsets.put(id, start);
+                int epicStart = idEnd;
+                for (int field = 1; field < 5; field++) {
+                    epicStart = indexOf(epicStart + 1, end);
+                }
+                int epicId = parseInt(epicStart + 1, indexOf(epicStart + 1, end));
+                subtaskIdsByEpic.computeIfAbsent(epicId, key -> new ArrayList<>()).add(id);
+            }
+            default -> taskOffsets.put(id, start);
+        }
+    }
+
+    private int lineEnd(int from) {
+        int position = from;
+        while (position < buffer.limit() && buffer.get(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    private int contentEnd(int start, int end) {
+        return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    private int indexOf(int from, int end) {
+        int position = from;
+        while (position < end && buffer.get(position) != ',') {
+            position++;
+        }
+        return position;
+    }
+
+    private int parseInt(int from, int to) {
+        int value = 0;
+        for (int position = from; position < to; position++) {
+            value = value * 10 + (buffer.get(position) - '0');
+        }
+        return value;
+    }
+
+    private Map<Integer, Integer> offsets(TaskType type) {
+        return switch (type) {
+            case TASK -> taskOffsets;
+            case EPIC -> epicOffsets;
+            case SUBTASK -> subtaskOffsets;
+        };
+    }
+
+    String line(TaskType type, int id) {
+        Integer offset = offsets(type).get(id);
+        if (offset == null) {
+            return null;
+        }
+        byte[] bytes = new byte[contentEnd(offset, lineEnd(offset)) - offset];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    Collection<Integer> ids(TaskType type) {
+        return offsets(type).keySet();
+    }
+
+    List<Integer> subtaskIds(int epicId) {
+        return subtaskIdsByEpic.getOrDefault(epicId, List.of());
+    }
+
+    int maxId() {
+        return maxId;
+    }
+}
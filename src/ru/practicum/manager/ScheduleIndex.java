@@ -0,0 +1,68 @@
+package ru.practicum.manager;
+
+import ru.practicum.task.Task;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+class ScheduleIndex {
+
+    private static final Comparator<Slot> SLOT_ORDER = Comparator.comparing((Slot slot) -> slot.start)
+            .thenComparing(slot -> slot.end)
+            .thenComparingInt(slot -> slot.id);
+
+    private final NavigableSet<Slot> slots = new TreeSet<>(SLOT_ORDER);
+    private final IntMap<Slot> slotsById = new IntMap<>();
+
+    private static class Slot {
+        final LocalDateTime start;
+        final LocalDateTime end;
+        final int id;
+
+        Slot(LocalDateTime start, LocalDateTime end, int id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+        }
+    }
+
+    void add(Task task) {
+        remove(task.getId());
+        if (task.getStartTime() == null) {
+            return;
+        }
+        Slot slot = new Slot(task.getStartTime(), task.getEndTime(), task.getId());
+        slots.add(slot);
+        slotsById.put(slot.id, slot);
+    }
+
+    void remove(int id) {
+        Slot slot = slotsById.remove(id);
+        if (slot != null) {
+            slots.remove(slot);
+        }
+    }
+
+    void clear() {
+        slots.clear();
+        slotsById.clear();
+    }
+
+    // Сохранённые интервалы не пересекаются, поэтому при сортировке по началу их концы тоже идут по возрастанию.
+    // Достаточно проверить последний интервал, начавшийся раньше конца новой задачи (не считая её саму).
+    boolean overlaps(Task task) {
+        if (task.getStartTime() == null) {
+            return false;
+        }
+        LocalDateTime start = task.getStartTime();
+        LocalDateTime end = task.getEndTime();
+
+        Slot candidate = slots.lower(new Slot(end, LocalDateTime.MIN, Integer.MIN_VALUE));
+        if (candidate != null && candidate.id == task.getId()) {
+            candidate = slots.lower(candidate);
+        }
+        return candidate != null && start.isBefore(candidate.end);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.manager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+// Снимок публикуется через volatile вместе с версией и отдаётся без копирования, пока версия та же.
+final class SnapshotCache<T> {
+
+    private record Snapshot<T>(long version, List<T> items) {
+    }
+
+    private final Comparator<? super T> order;
+    private volatile Snapshot<T> snapshot;
+
+    SnapshotCache() {
+        this(null);
+    }
+
+    SnapshotCache(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    List<T> get(long version, Collection<? extends T> source) {
+        Snapshot<T> current = snapshot;
+        if (current != null && current.version() == version) {
+            return current.items();
+        }
+        List<T> items;
+        if (order == null) {
+            items = List.copyOf(source);
+        } else {
+            @SuppressWarnings("unchecked")
+            T[] array = (T[]) source.toArray();
+            Arrays.sort(array, order);
+            items = Collections.unmodifiableList(Arrays.asList(array));
+        }
+        snapshot = new Snapshot<>(version, items);
+        return items;
+    }
+}
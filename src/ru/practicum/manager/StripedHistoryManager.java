@@ -0,0 +1,167 @@
+package ru.practicum.manager;
+
+import ru.practicum.task.Task;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Просмотры копятся в буферах полос с глобальным номером и сливаются в delegate по номерам. Номер берётся
+// под блокировкой полосы, а слив держит все полосы, поэтому меньший номер не догонит применённый больший.
+class StripedHistoryManager implements HistoryManager {
+
+    private static final int STRIPE_CAPACITY = 128;
+    private static final int MAX_STRIPES = 64;
+
+    private final HistoryManager delegate;
+    private final Stripe[] stripes;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Task[][] spareTasks;
+    private final long[][] spareSequences;
+    private final int[] drainedCounts;
+    private final int[] cursors;
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        Task[] tasks = new Task[STRIPE_CAPACITY];
+        long[] sequences = new long[STRIPE_CAPACITY];
+        int count;
+    }
+
+    StripedHistoryManager(HistoryManager delegate) {
+        this(delegate, Runtime.getRuntime().availableProcessors());
+    }
+
+    StripedHistoryManager(HistoryManager delegate, int parallelism) {
+        this.delegate = delegate;
+        int stripeCount = Integer.highestOneBit(Math.min(Math.max(parallelism, 1), MAX_STRIPES) * 2 - 1);
+        stripes = new Stripe[stripeCount];
+        spareTasks = new Task[stripeCount][];
+        spareSequences = new long[stripeCount][];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+            spareTasks[i] = new Task[STRIPE_CAPACITY];
+            spareSequences[i] = new long[STRIPE_CAPACITY];
+        }
+        drainedCounts = new int[stripeCount];
+        cursors = new int[stripeCount];
+    }
+
+    private Stripe stripe() {
+        long id = Thread.currentThread().threadId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) {
+            return;
+        }
+        Stripe stripe = stripe();
+        while (true) {
+            stripe.lock.lock();
+            try {
+                if (stripe.count < STRIPE_CAPACITY) {
+                    stripe.tasks[stripe.count] = task;
+                    stripe.sequences[stripe.count] = sequence.getAndIncrement();
+                    stripe.count++;
+                    return;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+            drain();
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        drainLock.lock();
+        try {
+            drainLocked();
+            delegate.remove(id);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        drainLock.lock();
+        try {
+            drainLocked();
+            return delegate.getHistory();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        drainLock.lock();
+        try {
+            drainLocked();
+            return delegate.getVersion();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void drain() {
+        drainLock.lock();
+        try {
+            drainLocked();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void drainLocked() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+        try {
+            for (int i = 0; i < stripes.length; i++) {
+                Stripe stripe = stripes[i];
+                Task[] tasks = stripe.tasks;
+                long[] sequences = stripe.sequences;
+                stripe.tasks = spareTasks[i];
+                stripe.sequences = spareSequences[i];
+                spareTasks[i] = tasks;
+                spareSequences[i] = sequences;
+                drainedCounts[i] = stripe.count;
+                total += stripe.count;
+                stripe.count = 0;
+            }
+        } finally {
+            for (Stripe stripe : stripes) {
+                stripe.lock.unlock();
+            }
+        }
+        if (total > 0) {
+            replay(total);
+        }
+    }
+
+    private void replay(int total) {
+        for (int i = 0; i < stripes.length; i++) {
+            cursors[i] = 0;
+        }
+        for (int applied = 0; applied < total; applied++) {
+            int next = -1;
+            long nextSequence = Long.MAX_VALUE;
+            for (int i = 0; i < stripes.length; i++) {
+                if (cursors[i] < drainedCounts[i] && spareSequences[i][cursors[i]] < nextSequence) {
+                    next = i;
+                    nextSequence = spareSequences[i][cursors[i]];
+                }
+            }
+            int position = cursors[next]++;
+            delegate.add(spareTasks[next][position]);
+            spareTasks[next][position] = null;
+        }
+    }
+}
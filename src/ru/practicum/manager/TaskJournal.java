@@ -0,0 +1,297 @@
+package ru.practicum.manager;
+
+import ru.practicum.enums.Durability;
+import ru.practicum.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TaskJournal {
+
+    private final File file;
+    private final File rotatedFile;
+    private final Durability durability;
+    private final Object lock = new Object();
+    private final AtomicInteger size = new AtomicInteger();
+    private FileChannel channel;
+    private long written;
+    private long forced;
+    private boolean forcing;
+
+    private final List<byte[]> pending = new ArrayList<>();
+    private boolean drainScheduled;
+    private ExecutorService drainer;
+    private IOException drainFailure;
+    private final MetricsRegistry.Histogram appendTime;
+    private final MetricsRegistry.Counter appendedBytes;
+
+    TaskJournal(File snapshotFile, Durability durability) {
+        this(snapshotFile, durability, MetricsRegistry.getDefault());
+    }
+
+    TaskJournal(File snapshotFile, Durability durability, MetricsRegistry metrics) {
+        this.file = new File(snapshotFile.getPath() + ".log");
+        this.rotatedFile = new File(snapshotFile.getPath() + ".log.old");
+        this.durability = durability;
+        this.appendTime = metrics.latency("kanban_journal_append_duration_seconds",
+                "Время дозаписи в журнал с учётом выбранной durability.");
+        this.appendedBytes = metrics.counter("kanban_journal_bytes_total", "Байт дописано в журнал.");
+    }
+
+    // Запись и фиксация разделены: менеджер пишет под своим монитором, чтобы порядок в журнале совпадал
+    // с порядком изменений, а force ждёт уже без монитора, и параллельные записи делят один force.
+    record Commit(long sequence, long start) {
+    }
+
+    void append(String record) throws IOException {
+        awaitDurable(write(record));
+    }
+
+    Commit write(String record) throws IOException {
+        return write((record + "\n").getBytes(StandardCharsets.UTF_8), 1);
+    }
+
+    Commit writeAll(List<String> records) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (String record : records) {
+            builder.append(record).append('\n');
+        }
+        return write(builder.toString().getBytes(StandardCharsets.UTF_8), records.size());
+    }
+
+    private Commit write(byte[] bytes, int records) throws IOException {
+        long start = System.nanoTime();
+        long sequence;
+        try {
+            sequence = writeBytes(bytes, records);
+        } catch (IOException | RuntimeException e) {
+            appendTime.record(System.nanoTime() - start);
+            throw e;
+        }
+        appendedBytes.add(bytes.length);
+        return new Commit(sequence, start);
+    }
+
+    void awaitDurable(Commit commit) throws IOException {
+        try {
+            if (durability == Durability.GROUP_COMMIT) {
+                awaitForced(commit.sequence());
+            }
+        } finally {
+            appendTime.record(System.nanoTime() - commit.start());
+        }
+    }
+
+    private long writeBytes(byte[] bytes, int records) throws IOException {
+        size.addAndGet(records);
+        if (durability == Durability.ASYNC) {
+            enqueue(bytes);
+            return 0;
+        }
+
+        synchronized (lock) {
+            write(bytes);
+            if (durability == Durability.SYNC) {
+                channel.force(false);
+                forced = written;
+            }
+            return written;
+        }
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        written++;
+    }
+
+    // Групповая фиксация: первый ожидающий поток делает один force за всех, кто успел записаться до него.
+    private void awaitForced(long sequence) throws IOException {
+        while (true) {
+            long target;
+            FileChannel forcedChannel;
+            synchronized (lock) {
+                while (forcing && forced < sequence) {
+                    waitOnLock();
+                }
+                if (forced >= sequence) {
+                    return;
+                }
+                forcing = true;
+                target = written;
+                forcedChannel = channel;
+            }
+            boolean success = false;
+            try {
+                forcedChannel.force(false);
+                success = true;
+            } finally {
+                synchronized (lock) {
+                    forcing = false;
+                    if (success && forced < target) {
+                        forced = target;
+                    }
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void enqueue(byte[] bytes) throws IOException {
+        ExecutorService executor;
+        synchronized (pending) {
+            if (drainFailure != null) {
+                IOException failure = drainFailure;
+                drainFailure = null;
+                throw failure;
+            }
+            pending.add(bytes);
+            if (drainScheduled) {
+                return;
+            }
+            drainScheduled = true;
+            if (drainer == null) {
+                drainer = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "journal-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            executor = drainer;
+        }
+        executor.execute(() -> {
+            try {
+                synchronized (lock) {
+                    drainPending();
+                }
+            } catch (IOException e) {
+                synchronized (pending) {
+                    drainFailure = e;
+                }
+            }
+        });
+    }
+
+    // Вызывается под lock.
+    private void drainPending() throws IOException {
+        List<byte[]> batch;
+        synchronized (pending) {
+            drainScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+        for (byte[] bytes : batch) {
+            write(bytes);
+        }
+        channel.force(false);
+        forced = written;
+    }
+
+    private void quiesce() throws IOException {
+        drainPending();
+        while (forcing) {
+            waitOnLock();
+        }
+        if (channel != null && durability != Durability.NONE && forced < written) {
+            channel.force(false);
+            forced = written;
+        }
+    }
+
+    private void waitOnLock() throws InterruptedIOException {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Ожидание записи журнала прервано");
+        }
+    }
+
+    // Если прошлое сжатие не успело удалить старый журнал, текущий дописывается в его конец.
+    void rotate() throws IOException {
+        synchronized (lock) {
+            quiesce();
+            closeChannel();
+            size.set(0);
+            if (!file.exists()) {
+                return;
+            }
+            if (rotatedFile.exists()) {
+                Files.write(rotatedFile.toPath(), Files.readAllBytes(file.toPath()), StandardOpenOption.APPEND);
+                Files.delete(file.toPath());
+            } else {
+                Files.move(file.toPath(), rotatedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    void dropRotated() throws IOException {
+        Files.deleteIfExists(rotatedFile.toPath());
+    }
+
+    void deleteAll() throws IOException {
+        synchronized (lock) {
+            quiesce();
+            closeChannel();
+            size.set(0);
+            Files.deleteIfExists(rotatedFile.toPath());
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    List<File> existingFiles() {
+        List<File> files = new ArrayList<>();
+        if (rotatedFile.exists()) {
+            files.add(rotatedFile);
+        }
+        if (file.exists()) {
+            files.add(file);
+        }
+        return files;
+    }
+
+    void close() throws IOException {
+        synchronized (lock) {
+            quiesce();
+            closeChannel();
+        }
+        synchronized (pending) {
+            if (drainer != null) {
+                drainer.shutdown();
+                drainer = null;
+            }
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.manager;
 
+import ru.practicum.enums.TaskCollection;
 import ru.practicum.task.Task;
 import ru.practicum.task.Epic;
 import ru.practicum.task.Subtask;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TaskManager {
@@ -24,6 +26,12 @@ public interface TaskManager {
 
     Subtask getSubtaskByID(int id);
 
+    LookupResult<Task> getTasksByIds(int[] ids);
+
+    LookupResult<Epic> getEpicsByIds(int[] ids);
+
+    LookupResult<Subtask> getSubtasksByIds(int[] ids);
+
     List<Task> getTasks();
 
     List<Epic> getEpics();
@@ -46,5 +54,13 @@ public interface TaskManager {
 
     List<Task> getHistory();
 
+    List<BatchResult> applyBatch(List<BatchOperation> operations);
+
     List<Task> getPrioritizedTasks();
+
+    List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to, int limit);
+
+    List<Task> getPrioritizedTasksAfter(LocalDateTime cursorStart, int cursorId, LocalDateTime to, int limit);
+
+    long getVersion(TaskCollection collection);
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+package ru.practicum.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    // Границы корзин задержки в наносекундах: от 50 мкс до 10 с.
+    public static final long[] LATENCY_BUCKETS = {50_000L, 100_000L, 250_000L, 500_000L, 1_000_000L, 2_500_000L,
+            5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L, 100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 10_000_000_000L};
+    // Границы корзин размера в байтах: от 1 КиБ до 256 МиБ.
+    public static final long[] SIZE_BUCKETS = {1L << 10, 1L << 12, 1L << 14, 1L << 16, 1L << 18, 1L << 20,
+            1L << 22, 1L << 24, 1L << 26, 1L << 28};
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public MetricsRegistry() {
+    }
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    private static final class Family {
+        final String help;
+        final String type;
+        final Map<String, Object> series = new ConcurrentSkipListMap<>();
+
+        Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    public static final class Histogram {
+        private final long[] bounds;
+        private final double scale;
+        private final LongAdder[] buckets;
+        private final LongAdder sum = new LongAdder();
+
+        private Histogram(long[] bounds, double scale) {
+            this.bounds = bounds;
+            this.scale = scale;
+            this.buckets = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void record(long value) {
+            int low = 0;
+            int high = bounds.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (bounds[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            buckets[low].increment();
+            sum.add(value);
+        }
+
+        public long count() {
+            long count = 0;
+            for (LongAdder bucket : buckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        return series(name, help, "counter", labels, Counter.class, Counter::new);
+    }
+
+    public Histogram latency(String name, String help, String... labels) {
+        return series(name, help, "histogram", labels, Histogram.class,
+                () -> new Histogram(LATENCY_BUCKETS, 1e-9));
+    }
+
+    public Histogram sizes(String name, String help, String... labels) {
+        return series(name, help, "histogram", labels, Histogram.class, () -> new Histogram(SIZE_BUCKETS, 1));
+    }
+
+    private <T> T series(String name, String help, String type, String[] labels, Class<T> kind,
+                         Supplier<T> factory) {
+        Family family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Метрика " + name + " уже зарегистрирована как " + family.type);
+        }
+        return kind.cast(family.series.computeIfAbsent(formatLabels(labels), key -> factory.get()));
+    }
+
+    private static String formatLabels(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Метки задаются парами имя, значение");
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            builder.append(i == 0 ? "" : ",").append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                switch (c) {
+                    case '\\' -> builder.append("\\\\");
+                    case '"' -> builder.append("\\\"");
+                    case '\n' -> builder.append("\\n");
+                    default -> builder.append(c);
+                }
+            }
+            builder.append('"');
+        }
+        return builder.toString();
+    }
+
+    public void writePrometheus(Writer out) throws IOException {
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            out.write("# HELP " + name + " " + family.help + "\n");
+            out.write("# TYPE " + name + " " + family.type + "\n");
+            for (Map.Entry<String, Object> series : family.series.entrySet()) {
+                String labels = series.getKey();
+                switch (series.getValue()) {
+                    case Counter counter -> out.write(name + braces(labels) + " " + counter.get() + "\n");
+                    case Histogram histogram -> writeHistogram(out, name, labels, histogram);
+                    default -> throw new IllegalStateException();
+                }
+            }
+        }
+    }
+
+    private static void writeHistogram(Writer out, String name, String labels, Histogram histogram)
+            throws IOException {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < histogram.buckets.length; i++) {
+            cumulative += histogram.buckets[i].sum();
+            String le = i < histogram.bounds.length ? number(histogram.bounds[i] * histogram.scale) : "+Inf";
+            out.write(name + "_bucket{" + prefix + "le=\"" + le + "\"} " + cumulative + "\n");
+        }
+        out.write(name + "_sum" + braces(labels) + " " + number(histogram.sum.sum() * histogram.scale) + "\n");
+        out.write(name + "_count" + braces(labels) + " " + cumulative + "\n");
+    }
+
+    private static String braces(String labels) {
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+
+    private static String number(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -3,20 +3,34 @@ package ru.practicum.server;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.sun.net.httpserver.HttpServer;
+import ru.practicum.manager.InstrumentedTaskManager;
 import ru.practicum.manager.Managers;
 import ru.practicum.manager.TaskManager;
+import ru.practicum.metrics.MetricsRegistry;
 import ru.practicum.server.adapter.DurationAdapter;
+import ru.practicum.server.adapter.EpicAdapter;
 import ru.practicum.server.adapter.LocalDateTimeAdapter;
+import ru.practicum.server.adapter.SubtaskAdapter;
+import ru.practicum.server.adapter.TaskAdapter;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
 import ru.practicum.server.handler.*;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class HttpTaskServer {
-    private static final int PORT = 8080;
+    private static final int QUEUE_PER_THREAD = 32;
     private final HttpServer server;
+    private final ExecutorService executor;
     private final Gson gson;
 
     public HttpTaskServer() throws IOException {
@@ -24,38 +38,75 @@ public class HttpTaskServer {
     }
 
     public HttpTaskServer(TaskManager taskManager) throws IOException {
+        this(taskManager, ServerConfig.defaults());
+    }
+
+    public HttpTaskServer(TaskManager taskManager, ServerConfig config) throws IOException {
+        this(taskManager, config, MetricsRegistry.getDefault());
+    }
+
+    public HttpTaskServer(TaskManager taskManager, ServerConfig config, MetricsRegistry metrics) throws IOException {
         this.gson = getGson();
-        this.server = HttpServer.create(new InetSocketAddress(PORT), 0);
-        server.createContext("/tasks", new TaskHandler(taskManager, gson));
-        server.createContext("/subtasks", new SubtaskHandler(taskManager, gson));
-        server.createContext("/epics", new EpicHandler(taskManager, gson));
-        server.createContext("/history", new HistoryHandler(taskManager, gson));
-        server.createContext("/prioritized", new PrioritizedHandler(taskManager, gson));
+        this.server = HttpServer.create(new InetSocketAddress(config.getPort()), config.getBacklog());
+        this.executor = createExecutor(config);
+        server.setExecutor(executor);
+        if (!(taskManager instanceof InstrumentedTaskManager)) {
+            taskManager = new InstrumentedTaskManager(taskManager, metrics);
+        }
+        Router router = new Router(metrics);
+        new TaskHandler(taskManager, gson, config).register(router);
+        new SubtaskHandler(taskManager, gson, config).register(router);
+        new EpicHandler(taskManager, gson, config).register(router);
+        new HistoryHandler(taskManager, gson, config).register(router);
+        new PrioritizedHandler(taskManager, gson, config).register(router);
+        new BatchHandler(taskManager, gson, config).register(router);
+        new MetricsHandler(taskManager, gson, config, metrics).register(router);
+        server.createContext("/", router);
+    }
+
+    private static ExecutorService createExecutor(ServerConfig config) {
+        return switch (config.getExecutorMode()) {
+            case SINGLE_THREAD -> null;
+            case VIRTUAL_THREADS -> Executors.newVirtualThreadPerTaskExecutor();
+            case PLATFORM_POOL -> new ThreadPoolExecutor(config.getPoolSize(), config.getPoolSize(),
+                    0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(config.getPoolSize() * QUEUE_PER_THREAD),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        };
     }
 
     public static Gson getGson() {
         return new GsonBuilder()
                 .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
                 .registerTypeAdapter(Duration.class, new DurationAdapter())
+                .registerTypeAdapter(Task.class, new TaskAdapter())
+                .registerTypeAdapter(Subtask.class, new SubtaskAdapter())
+                .registerTypeAdapter(Epic.class, new EpicAdapter())
                 .create();
     }
 
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
     public void start() {
-        System.out.println("HTTP-сервер запущен на порту " + PORT);
         server.start();
+        System.out.println("HTTP-сервер запущен на порту " + getPort());
     }
 
     public void stop() {
         server.stop(0);
-        System.out.println("HTTP-сервер остановлен на порту " + PORT);
+        if (executor != null) {
+            executor.shutdown();
+        }
+        System.out.println("HTTP-сервер остановлен на порту " + getPort());
     }
 
     public static void main(String[] args) {
         try {
-            HttpTaskServer taskServer = new HttpTaskServer();
+            HttpTaskServer taskServer = new HttpTaskServer(Managers.getConcurrent(), ServerConfig.fromSystemProperties());
             taskServer.start();
         } catch (IOException e) {
             System.out.println("Ошибка при запуске сервера");
         }
     }
-}
\ No newline at end of file
+}
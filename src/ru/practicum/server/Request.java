@@ -0,0 +1,85 @@
+package ru.practicum.server;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+public final class Request {
+
+    private final HttpExchange exchange;
+    private final String[] pathNames;
+    private final int[] pathValues;
+    private final String rawQuery;
+
+    Request(HttpExchange exchange, String[] pathNames, int[] pathValues) {
+        this.exchange = exchange;
+        this.pathNames = pathNames;
+        this.pathValues = pathValues;
+        this.rawQuery = exchange.getRequestURI().getRawQuery();
+    }
+
+    public HttpExchange exchange() {
+        return exchange;
+    }
+
+    public int pathInt(String name) {
+        for (int i = 0; i < pathNames.length; i++) {
+            if (pathNames[i].equals(name)) {
+                return pathValues[i];
+            }
+        }
+        throw new IllegalArgumentException("В шаблоне пути нет параметра " + name);
+    }
+
+    public boolean hasQuery() {
+        return rawQuery != null && !rawQuery.isEmpty();
+    }
+
+    public boolean hasQuery(String name) {
+        return valueStart(name) >= 0;
+    }
+
+    public String query(String name) {
+        int start = valueStart(name);
+        if (start < 0) {
+            return null;
+        }
+        String value = rawQuery.substring(start, valueEnd(start));
+        if (value.indexOf('%') >= 0 || value.indexOf('+') >= 0) {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    public int queryInt(String name, int defaultValue) {
+        int start = valueStart(name);
+        if (start < 0) {
+            return defaultValue;
+        }
+        return Integer.parseInt(rawQuery, start, valueEnd(start), 10);
+    }
+
+    private int valueStart(String name) {
+        if (rawQuery == null) {
+            return -1;
+        }
+        int position = 0;
+        int length = rawQuery.length();
+        while (position < length) {
+            int end = valueEnd(position);
+            int separator = position + name.length();
+            if (separator < end && rawQuery.charAt(separator) == '='
+                    && rawQuery.regionMatches(position, name, 0, name.length())) {
+                return separator + 1;
+            }
+            position = end + 1;
+        }
+        return -1;
+    }
+
+    private int valueEnd(int start) {
+        int end = rawQuery.indexOf('&', start);
+        return end < 0 ? rawQuery.length() : end;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.server;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface Route {
+    void handle(Request request) throws IOException;
+}
@@ -0,0 +1,75 @@
+package ru.practicum.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.practicum.metrics.MetricsRegistry;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+final class RouteMetrics {
+
+    private static final int MAX_STATUS = 600;
+
+    private final MetricsRegistry registry;
+    private final String method;
+    private final String route;
+    private final MetricsRegistry.Histogram latency;
+    private final MetricsRegistry.Counter bytes;
+    private final AtomicReferenceArray<MetricsRegistry.Counter> responses = new AtomicReferenceArray<>(MAX_STATUS);
+
+    RouteMetrics(MetricsRegistry registry, String method, String route) {
+        this.registry = registry;
+        this.method = method;
+        this.route = route;
+        this.latency = registry.latency("kanban_http_request_duration_seconds",
+                "Время обработки HTTP-запроса.", "method", method, "route", route);
+        this.bytes = registry.counter("kanban_http_response_bytes_total",
+                "Байт записано в тела ответов (после сжатия).", "method", method, "route", route);
+    }
+
+    void measure(HttpExchange exchange, Route route, Request request) throws IOException {
+        long start = System.nanoTime();
+        CountingOutputStream body = new CountingOutputStream(exchange.getResponseBody());
+        exchange.setStreams(null, body);
+        try {
+            route.handle(request);
+        } finally {
+            latency.record(System.nanoTime() - start);
+            bytes.add(body.count);
+            response(exchange.getResponseCode()).increment();
+        }
+    }
+
+    private MetricsRegistry.Counter response(int status) {
+        int index = status >= 0 && status < MAX_STATUS ? status : 0;
+        MetricsRegistry.Counter counter = responses.get(index);
+        if (counter == null) {
+            counter = registry.counter("kanban_http_responses_total", "HTTP-ответы по кодам.",
+                    "method", method, "route", this.route, "code", String.valueOf(index));
+            responses.compareAndSet(index, null, counter);
+        }
+        return counter;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import ru.practicum.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Метка route — шаблон пути, а не сам путь, чтобы число серий не зависело от id в запросах.
+public final class Router implements HttpHandler {
+
+    private static final int MAX_PATH_PARAMS = 4;
+
+    private final Node root = new Node();
+    private final MetricsRegistry metrics;
+    private final RouteMetrics unmatched;
+
+    public Router() {
+        this(MetricsRegistry.getDefault());
+    }
+
+    public Router(MetricsRegistry metrics) {
+        this.metrics = metrics;
+        this.unmatched = new RouteMetrics(metrics, "any", "unmatched");
+    }
+
+    private static final class Node {
+        String[] literals = new String[0];
+        Node[] children = new Node[0];
+        Node param;
+        final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+        Node literal(String path, int start, int end) {
+            for (int i = 0; i < literals.length; i++) {
+                String literal = literals[i];
+                if (literal.length() == end - start && path.regionMatches(start, literal, 0, literal.length())) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node addLiteral(String segment) {
+            Node child = literal(segment, 0, segment.length());
+            if (child == null) {
+                child = new Node();
+                int size = literals.length;
+                literals = Arrays.copyOf(literals, size + 1);
+                children = Arrays.copyOf(children, size + 1);
+                literals[size] = segment;
+                children[size] = child;
+            }
+            return child;
+        }
+    }
+
+    private record Endpoint(Route route, String[] pathNames, RouteMetrics metrics) {
+    }
+
+    public Router add(String method, String template, Route route) {
+        Node node = root;
+        List<String> pathNames = new ArrayList<>();
+        for (String segment : template.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                if (node.param == null) {
+                    node.param = new Node();
+                }
+                node = node.param;
+                pathNames.add(segment.substring(1, segment.length() - 1));
+            } else {
+                node = node.addLiteral(segment);
+            }
+        }
+        if (pathNames.size() > MAX_PATH_PARAMS) {
+            throw new IllegalArgumentException("Слишком много параметров в шаблоне " + template);
+        }
+        if (node.endpoints.putIfAbsent(method, new Endpoint(route, pathNames.toArray(new String[0]),
+                new RouteMetrics(metrics, method, template))) != null) {
+            throw new IllegalStateException("Маршрут уже зарегистрирован: " + method + " " + template);
+        }
+        return this;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        int[] pathValues = new int[MAX_PATH_PARAMS];
+        Node node = match(exchange.getRequestURI().getRawPath(), pathValues);
+        if (node == null || node.endpoints.isEmpty()) {
+            unmatched.measure(exchange, request -> sendText(exchange, "Эндпоинт не найден", 404), null);
+            return;
+        }
+        Endpoint endpoint = node.endpoints.get(exchange.getRequestMethod());
+        if (endpoint == null) {
+            exchange.getResponseHeaders().add("Allow", String.join(", ", node.endpoints.keySet()));
+            unmatched.measure(exchange, request -> sendText(exchange, "Неверный метод", 405), null);
+            return;
+        }
+        endpoint.metrics().measure(exchange, endpoint.route(),
+                new Request(exchange, endpoint.pathNames(), pathValues));
+    }
+
+    // Пустые сегменты пропускаются. Буквальный сегмент важнее параметра.
+    private Node match(String path, int[] pathValues) {
+        Node node = root;
+        int found = 0;
+        int position = 0;
+        int length = path.length();
+        while (position < length) {
+            if (path.charAt(position) == '/') {
+                position++;
+                continue;
+            }
+            int end = path.indexOf('/', position);
+            if (end < 0) {
+                end = length;
+            }
+            Node next = node.literal(path, position, end);
+            if (next == null && node.param != null && found < pathValues.length) {
+                try {
+                    pathValues[found] = Integer.parseInt(path, position, end, 10);
+                    found++;
+                    next = node.param;
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            if (next == null) {
+                return null;
+            }
+            node = next;
+            position = end;
+        }
+        return node;
+    }
+
+    private static void sendText(HttpExchange exchange, String text, int statusCode) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(statusCode, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+        exchange.close();
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.server;
+
+import ru.practicum.enums.ExecutorMode;
+
+public class ServerConfig {
+    public static final int DEFAULT_PORT = 8080;
+    public static final long DEFAULT_MAX_BODY_SIZE = 1024 * 1024;
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    private final int port;
+    private final int backlog;
+    private final ExecutorMode executorMode;
+    private final int poolSize;
+    private final long maxBodySize;
+    private final int compressionThreshold;
+
+    public ServerConfig(int port, int backlog, ExecutorMode executorMode, int poolSize) {
+        this(port, backlog, executorMode, poolSize, DEFAULT_MAX_BODY_SIZE);
+    }
+
+    public ServerConfig(int port, int backlog, ExecutorMode executorMode, int poolSize, long maxBodySize) {
+        this(port, backlog, executorMode, poolSize, maxBodySize, DEFAULT_COMPRESSION_THRESHOLD);
+    }
+
+    public ServerConfig(int port, int backlog, ExecutorMode executorMode, int poolSize, long maxBodySize,
+                        int compressionThreshold) {
+        this.port = port;
+        this.backlog = backlog;
+        this.executorMode = executorMode;
+        this.poolSize = poolSize;
+        this.maxBodySize = maxBodySize;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public static ServerConfig defaults() {
+        return new ServerConfig(DEFAULT_PORT, 0, ExecutorMode.SINGLE_THREAD,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    public static ServerConfig fromSystemProperties() {
+        ServerConfig defaults = defaults();
+        return new ServerConfig(
+                Integer.getInteger("kanban.port", defaults.port),
+                Integer.getInteger("kanban.backlog", defaults.backlog),
+                ExecutorMode.valueOf(System.getProperty("kanban.executor", ExecutorMode.VIRTUAL_THREADS.name())),
+                Integer.getInteger("kanban.poolSize", defaults.poolSize),
+                Long.getLong("kanban.maxBodySize", defaults.maxBodySize),
+                Integer.getInteger("kanban.compressionThreshold", defaults.compressionThreshold));
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public ExecutorMode getExecutorMode() {
+        return executorMode;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public long getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+}
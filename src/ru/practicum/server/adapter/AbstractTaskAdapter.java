@@ -0,0 +1,179 @@
+package ru.practicum.server.adapter;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import ru.practicum.enums.Status;
+import ru.practicum.task.Task;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+abstract class AbstractTaskAdapter<T extends Task> extends TypeAdapter<T> {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    static final class Fields {
+        int id;
+        String name;
+        String description;
+        Status status = Status.NEW;
+        Duration duration = Duration.ZERO;
+        LocalDateTime startTime;
+        int epicId;
+    }
+
+    @Override
+    public void write(JsonWriter out, T task) throws IOException {
+        write(out, task, TaskProjection.ALL);
+    }
+
+    public void write(JsonWriter out, T task, TaskProjection projection) throws IOException {
+        if (task == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        writeFields(out, task, projection);
+        out.endObject();
+    }
+
+    protected void writeFields(JsonWriter out, T task, TaskProjection projection) throws IOException {
+        writeTaskFields(out, task, projection);
+    }
+
+    static void writeTaskFields(JsonWriter out, Task task, TaskProjection projection) throws IOException {
+        if (projection.includes(TaskProjection.ID)) {
+            out.name("id").value(task.getId());
+        }
+        if (projection.includes(TaskProjection.NAME) && task.getName() != null) {
+            out.name("name").value(task.getName());
+        }
+        if (projection.includes(TaskProjection.DESCRIPTION) && task.getDescription() != null) {
+            out.name("description").value(task.getDescription());
+        }
+        if (projection.includes(TaskProjection.STATUS) && task.getStatus() != null) {
+            out.name("status").value(task.getStatus().name());
+        }
+        if (projection.includes(TaskProjection.DURATION) && task.getDuration() != null) {
+            out.name("duration").value(task.getDuration().toMinutes());
+        }
+        if (projection.includes(TaskProjection.START_TIME)) {
+            writeTime(out, "startTime", task.getStartTime());
+        }
+    }
+
+    static void writeTime(JsonWriter out, String name, LocalDateTime time) throws IOException {
+        if (time != null) {
+            out.name(name).value(formatTime(time));
+        }
+    }
+
+    static String formatTime(LocalDateTime time) {
+        int year = time.getYear();
+        if (time.getNano() != 0 || year < 0 || year > 9999) {
+            return time.format(FORMATTER);
+        }
+        char[] chars = new char[19];
+        digits(chars, 0, year, 4);
+        chars[4] = '-';
+        digits(chars, 5, time.getMonthValue(), 2);
+        chars[7] = '-';
+        digits(chars, 8, time.getDayOfMonth(), 2);
+        chars[10] = 'T';
+        digits(chars, 11, time.getHour(), 2);
+        chars[13] = ':';
+        digits(chars, 14, time.getMinute(), 2);
+        chars[16] = ':';
+        digits(chars, 17, time.getSecond(), 2);
+        return new String(chars);
+    }
+
+    private static void digits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Fields fields = new Fields();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id" -> fields.id = in.nextInt();
+                case "name" -> fields.name = in.nextString();
+                case "description" -> fields.description = in.nextString();
+                case "status" -> fields.status = readStatus(in);
+                case "duration" -> fields.duration = Duration.ofMinutes(in.nextLong());
+                case "startTime" -> fields.startTime = readTime(in);
+                case "epicID" -> fields.epicId = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return create(fields);
+    }
+
+    protected abstract T create(Fields fields);
+
+    private static Status readStatus(JsonReader in) throws IOException {
+        String value = in.nextString();
+        try {
+            return Status.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("Неизвестный статус задачи: " + value, e);
+        }
+    }
+
+    private static int number(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static LocalDateTime readTime(JsonReader in) throws IOException {
+        String text = in.nextString();
+        if (text.equals("null")) {
+            return null;
+        }
+        if (text.length() == 19 && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == 'T'
+                && text.charAt(13) == ':' && text.charAt(16) == ':') {
+            int year = number(text, 0, 4);
+            int month = number(text, 5, 7);
+            int day = number(text, 8, 10);
+            int hour = number(text, 11, 13);
+            int minute = number(text, 14, 16);
+            int second = number(text, 17, 19);
+            if ((year | month | day | hour | minute | second) >= 0) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute, second);
+                } catch (DateTimeException e) {
+                    // Ошибку в привычном виде сообщит полный разбор ниже.
+                }
+            }
+        }
+        return LocalDateTime.parse(text, FORMATTER);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.server.adapter;
+
+import com.google.gson.stream.JsonWriter;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+
+import java.io.IOException;
+
+// endTime и subtaskList при чтении пропускаются: подзадачи привязываются к эпику только через менеджер.
+public class EpicAdapter extends AbstractTaskAdapter<Epic> {
+
+    private final SubtaskAdapter subtaskAdapter = new SubtaskAdapter();
+
+    @Override
+    protected void writeFields(JsonWriter out, Epic epic, TaskProjection projection) throws IOException {
+        writeTaskFields(out, epic, projection);
+        if (projection.includes(TaskProjection.END_TIME)) {
+            writeTime(out, "endTime", epic.getEndTime());
+        }
+        if (projection.includes(TaskProjection.SUBTASK_LIST)) {
+            out.name("subtaskList").beginArray();
+            for (Subtask subtask : epic.getSubtaskList()) {
+                subtaskAdapter.write(out, subtask);
+            }
+            out.endArray();
+        }
+        if (projection.includes(TaskProjection.SUBTASK_IDS)) {
+            out.name("subtaskIds").beginArray();
+            for (Subtask subtask : epic.getSubtaskList()) {
+                out.value(subtask.getId());
+            }
+            out.endArray();
+        }
+        if (projection.includes(TaskProjection.SUBTASK_COUNT)) {
+            out.name("subtaskCount").value(epic.getSubtaskList().size());
+        }
+    }
+
+    @Override
+    protected Epic create(Fields fields) {
+        return new Epic(fields.id, fields.name, fields.description, fields.status);
+    }
+}
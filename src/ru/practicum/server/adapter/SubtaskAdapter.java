@@ -0,0 +1,25 @@
+package ru.practicum.server.adapter;
+
+import com.google.gson.stream.JsonWriter;
+import ru.practicum.task.Subtask;
+
+import java.io.IOException;
+
+public class SubtaskAdapter extends AbstractTaskAdapter<Subtask> {
+
+    @Override
+    protected void writeFields(JsonWriter out, Subtask subtask, TaskProjection projection) throws IOException {
+        writeTaskFields(out, subtask, projection);
+        if (projection.includes(TaskProjection.EPIC_ID)) {
+            out.name("epicID").value(subtask.getEpicID());
+        }
+    }
+
+    @Override
+    protected Subtask create(Fields fields) {
+        Subtask subtask = new Subtask(fields.id, fields.name, fields.description, fields.status, fields.epicId);
+        subtask.setStartTime(fields.startTime);
+        subtask.setDuration(fields.duration);
+        return subtask;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.server.adapter;
+
+import ru.practicum.task.Task;
+
+public class TaskAdapter extends AbstractTaskAdapter<Task> {
+
+    @Override
+    protected Task create(Fields fields) {
+        return new Task(fields.id, fields.name, fields.description, fields.status, fields.startTime, fields.duration);
+    }
+}
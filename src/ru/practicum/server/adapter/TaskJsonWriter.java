@@ -0,0 +1,35 @@
+package ru.practicum.server.adapter;
+
+import com.google.gson.stream.JsonWriter;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.io.IOException;
+import java.util.Collection;
+
+public final class TaskJsonWriter {
+
+    private final TaskAdapter taskAdapter = new TaskAdapter();
+    private final SubtaskAdapter subtaskAdapter = new SubtaskAdapter();
+    private final EpicAdapter epicAdapter = new EpicAdapter();
+
+    public void write(JsonWriter out, Task task, TaskProjection projection) throws IOException {
+        if (task instanceof Epic epic) {
+            epicAdapter.write(out, epic, projection);
+        } else if (task instanceof Subtask subtask) {
+            subtaskAdapter.write(out, subtask, projection);
+        } else {
+            taskAdapter.write(out, task, projection);
+        }
+    }
+
+    public void writeAll(JsonWriter out, Collection<? extends Task> tasks, TaskProjection projection)
+            throws IOException {
+        out.beginArray();
+        for (Task task : tasks) {
+            write(out, task, projection);
+        }
+        out.endArray();
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.server.adapter;
+
+public final class TaskProjection {
+
+    static final int ID = 1;
+    static final int NAME = 1 << 1;
+    static final int DESCRIPTION = 1 << 2;
+    static final int STATUS = 1 << 3;
+    static final int DURATION = 1 << 4;
+    static final int START_TIME = 1 << 5;
+    static final int EPIC_ID = 1 << 6;
+    static final int END_TIME = 1 << 7;
+    static final int SUBTASK_LIST = 1 << 8;
+    static final int SUBTASK_IDS = 1 << 9;
+    static final int SUBTASK_COUNT = 1 << 10;
+
+    private static final String[] NAMES = {"id", "name", "description", "status", "duration", "startTime", "epicID",
+            "endTime", "subtaskList", "subtaskIds", "subtaskCount"};
+    private static final int SUBTASK_VIEWS = SUBTASK_LIST | SUBTASK_IDS | SUBTASK_COUNT;
+
+    public static final TaskProjection ALL = new TaskProjection((1 << NAMES.length) - 1 & ~SUBTASK_IDS & ~SUBTASK_COUNT);
+
+    private final int mask;
+
+    private TaskProjection(int mask) {
+        this.mask = mask;
+    }
+
+    public static TaskProjection parse(String fields, String subtasks) {
+        int mask = ALL.mask;
+        if (fields != null) {
+            mask = 0;
+            for (String field : fields.split(",")) {
+                mask |= bit(field.trim());
+            }
+        }
+        if (subtasks != null) {
+            int view = switch (subtasks) {
+                case "list" -> SUBTASK_LIST;
+                case "ids" -> SUBTASK_IDS;
+                case "count" -> SUBTASK_COUNT;
+                case "none" -> 0;
+                default -> throw new IllegalArgumentException("Неизвестный вид подзадач: " + subtasks);
+            };
+            mask = mask & ~SUBTASK_VIEWS | view;
+        }
+        return mask == ALL.mask ? ALL : new TaskProjection(mask);
+    }
+
+    private static int bit(String field) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(field)) {
+                return 1 << i;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное поле: " + field);
+    }
+
+    boolean includes(int field) {
+        return (mask & field) != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TaskProjection other && other.mask == mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return mask;
+    }
+}
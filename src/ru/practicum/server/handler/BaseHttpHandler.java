@@ -1,25 +1,72 @@
 package ru.practicum.server.handler;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
+import ru.practicum.enums.TaskCollection;
 import ru.practicum.exception.ManagerSaveException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.exception.RequestTooLargeException;
 import ru.practicum.exception.TaskValidationException;
+import ru.practicum.manager.LookupResult;
 import ru.practicum.manager.TaskManager;
+import ru.practicum.server.Request;
+import ru.practicum.server.Route;
+import ru.practicum.server.Router;
+import ru.practicum.server.ServerConfig;
+import ru.practicum.server.adapter.TaskJsonWriter;
+import ru.practicum.server.adapter.TaskProjection;
+import ru.practicum.task.Task;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
-public abstract class BaseHttpHandler implements HttpHandler {
+public abstract class BaseHttpHandler {
+
+    private static final int RESPONSE_BUFFER = 8 * 1024;
+    private static final long TOO_LARGE_DRAIN = 16L * 1024 * 1024;
 
     protected final TaskManager taskManager;
     protected final Gson gson;
+    protected final long maxBodySize;
+    protected final int compressionThreshold;
+    private final TaskJsonWriter taskWriter = new TaskJsonWriter();
+
+    private interface JsonBody {
+        void writeTo(Writer writer) throws IOException;
+    }
 
     public BaseHttpHandler(TaskManager taskManager, Gson gson) {
+        this(taskManager, gson, ServerConfig.defaults());
+    }
+
+    public BaseHttpHandler(TaskManager taskManager, Gson gson, ServerConfig config) {
         this.taskManager = taskManager;
         this.gson = gson;
+        this.maxBodySize = config.getMaxBodySize();
+        this.compressionThreshold = config.getCompressionThreshold();
+    }
+
+    public abstract void register(Router router);
+
+    protected void route(Router router, String method, String template, Route route) {
+        router.add(method, template, request -> {
+            try {
+                route.handle(request);
+            } catch (Exception e) {
+                handleExceptions(request.exchange(), e);
+            }
+        });
     }
 
     protected void handleExceptions(HttpExchange exchange, Exception e) throws IOException {
@@ -27,6 +74,9 @@ public abstract class BaseHttpHandler implements HttpHandler {
             case NotFoundException notFoundException -> sendNotFound(exchange, e.getMessage());
             case TaskValidationException taskValidationException -> sendHasOverlaps(exchange, e.getMessage());
             case ManagerSaveException managerSaveException -> sendInternalError(exchange, e.getMessage());
+            case RequestTooLargeException requestTooLargeException -> sendTooLarge(exchange, e.getMessage());
+            case IllegalArgumentException illegalArgumentException ->
+                    sendBadRequest(exchange, "Некорректный параметр запроса: " + e.getMessage());
             default -> sendInternalError(exchange, "Внутренняя ошибка сервера.");
         }
     }
@@ -41,10 +91,188 @@ public abstract class BaseHttpHandler implements HttpHandler {
         h.close();
     }
 
+    protected void sendJson(HttpExchange h, Object value, int statusCode) throws IOException {
+        sendJson(h, statusCode, writer -> gson.toJson(value, writer));
+    }
+
+    private void sendJson(HttpExchange h, int statusCode, JsonBody body) throws IOException {
+        ContentEncoding encoding = negotiateEncoding(h);
+        h.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        int bufferSize = encoding == ContentEncoding.IDENTITY ? RESPONSE_BUFFER : compressionThreshold(h);
+        try (Writer writer = new OutputStreamWriter(new NegotiatedResponseStream(h, statusCode, encoding, bufferSize),
+                StandardCharsets.UTF_8)) {
+            body.writeTo(writer);
+        }
+        h.close();
+    }
+
+    protected void sendTasks(HttpExchange h, Object value, TaskProjection projection) throws IOException {
+        if (projection == null) {
+            sendJson(h, value, 200);
+        } else {
+            sendJson(h, 200, projectedBody(value, projection));
+        }
+    }
+
+    private JsonBody projectedBody(Object value, TaskProjection projection) {
+        return writer -> {
+            JsonWriter out = gson.newJsonWriter(writer);
+            if (value instanceof Collection<?> items) {
+                @SuppressWarnings("unchecked")
+                Collection<? extends Task> tasks = (Collection<? extends Task>) items;
+                taskWriter.writeAll(out, tasks, projection);
+            } else {
+                taskWriter.write(out, (Task) value, projection);
+            }
+            out.flush();
+        };
+    }
+
+    protected TaskProjection projection(Request request) {
+        String fields = request.query("fields");
+        String subtasks = request.query("subtasks");
+        if (fields == null && subtasks == null) {
+            return null;
+        }
+        return TaskProjection.parse(fields, subtasks);
+    }
+
+    private ContentEncoding negotiateEncoding(HttpExchange h) {
+        h.getResponseHeaders().add("Vary", "Accept-Encoding");
+        return ContentEncoding.negotiate(h.getRequestHeaders().getFirst("Accept-Encoding"));
+    }
+
+    private int compressionThreshold(HttpExchange h) {
+        return ContentEncoding.acceptsIdentity(h.getRequestHeaders().getFirst("Accept-Encoding"))
+                ? compressionThreshold : 0;
+    }
+
+    // Версия берётся до чтения списка: если список изменится между ними, в кэш попадут более новые данные
+    // под старым тегом, и клиент просто получит их ещё раз на следующем опросе.
+    protected void sendCachedJson(HttpExchange h, CachedResponse cache, TaskCollection collection,
+                                  Supplier<?> source) throws IOException {
+        sendCachedJson(h, cache, collection, writer -> gson.toJson(source.get(), writer));
+    }
+
+    protected void sendCachedTasks(HttpExchange h, CachedResponse cache, TaskCollection collection,
+                                   Supplier<?> source, TaskProjection projection) throws IOException {
+        if (projection == null) {
+            sendCachedJson(h, cache, collection, source);
+        } else {
+            sendCachedJson(h, cache.forProjection(projection), collection,
+                    writer -> projectedBody(source.get(), projection).writeTo(writer));
+        }
+    }
+
+    private void sendCachedJson(HttpExchange h, CachedResponse cache, TaskCollection collection,
+                                JsonBody source) throws IOException {
+        long version = taskManager.getVersion(collection);
+        ContentEncoding encoding = negotiateEncoding(h);
+        String etag = cache.etagFor(version, encoding);
+        h.getResponseHeaders().add("ETag", etag);
+        if (matchesEtag(h.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            h.sendResponseHeaders(304, -1);
+            h.close();
+            return;
+        }
+        CachedResponse.Entry entry = cache.get(version);
+        if (entry == null) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(RESPONSE_BUFFER);
+            try (Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+                source.writeTo(writer);
+            }
+            entry = cache.put(version, buffer.toByteArray());
+        }
+        byte[] body = entry.body();
+        if (encoding != ContentEncoding.IDENTITY && body.length > compressionThreshold(h)) {
+            body = entry.encoded(encoding);
+            h.getResponseHeaders().set("Content-Encoding", encoding.token());
+        }
+        h.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        h.sendResponseHeaders(200, body.length);
+        try (OutputStream os = h.getResponseBody()) {
+            os.write(body);
+        }
+        h.close();
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected <T> T readJson(HttpExchange h, Class<T> type) throws IOException {
+        String declared = h.getRequestHeaders().getFirst("Content-Length");
+        if (declared != null && Long.parseLong(declared) > maxBodySize) {
+            throw new RequestTooLargeException("Тело запроса больше " + maxBodySize + " байт.");
+        }
+        try (Reader reader = new InputStreamReader(new LimitedInputStream(h.getRequestBody(), maxBodySize),
+                StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, type);
+        }
+    }
+
+    protected void sendLookup(HttpExchange h, String ids, Function<int[], LookupResult<?>> lookup)
+            throws IOException {
+        String[] parts = ids.split(",");
+        int[] parsed = new int[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                parsed[i] = Integer.parseInt(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            sendBadRequest(h, "Некорректный список id: " + ids);
+            return;
+        }
+        sendJson(h, lookup.apply(parsed), 200);
+    }
+
+    // 413 уходит, не дожидаясь тела. Остаток тела затем вычитывается и отбрасывается (не больше
+    // TOO_LARGE_DRAIN): если закрыть сокет с непрочитанными данными, клиент получит сброс вместо ответа.
+    protected void sendTooLarge(HttpExchange h, String message) throws IOException {
+        byte[] resp = message.getBytes(StandardCharsets.UTF_8);
+        h.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        h.getResponseHeaders().set("Connection", "close");
+        h.sendResponseHeaders(413, resp.length);
+        try (OutputStream os = h.getResponseBody()) {
+            os.write(resp);
+            os.flush();
+            discard(h.getRequestBody(), TOO_LARGE_DRAIN);
+        }
+        h.close();
+    }
+
+    private static void discard(InputStream in, long limit) {
+        byte[] buffer = new byte[RESPONSE_BUFFER];
+        try {
+            int n;
+            while (limit > 0 && (n = in.read(buffer, 0, (int) Math.min(buffer.length, limit))) > 0) {
+                limit -= n;
+            }
+        } catch (IOException e) {
+            // Клиент оборвал передачу — ответ ему уже отправлен.
+        }
+    }
+
     protected void sendNotFound(HttpExchange h, String message) throws IOException {
         sendText(h, message, 404);
     }
 
+    protected void sendBadRequest(HttpExchange h, String message) throws IOException {
+        sendText(h, message, 400);
+    }
+
     protected void sendHasOverlaps(HttpExchange h, String message) throws IOException {
         sendText(h, message, 406);
     }
@@ -52,13 +280,4 @@ public abstract class BaseHttpHandler implements HttpHandler {
     protected void sendInternalError(HttpExchange h, String message) throws IOException {
         sendText(h, message, 500);
     }
-
-    protected int parseIdFromPath(HttpExchange exchange) {
-        String[] pathParts = exchange.getRequestURI().getPath().split("/");
-        try {
-            return Integer.parseInt(pathParts[2]);
-        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
-            return -1;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package ru.practicum.server.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import ru.practicum.enums.BatchAction;
+import ru.practicum.manager.BatchOperation;
+import ru.practicum.manager.BatchResult;
+import ru.practicum.manager.TaskManager;
+import ru.practicum.server.Request;
+import ru.practicum.server.Router;
+import ru.practicum.server.ServerConfig;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+import ru.practicum.task.TaskType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchHandler extends BaseHttpHandler {
+
+    public BatchHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
+    }
+
+    public BatchHandler(TaskManager taskManager, Gson gson, ServerConfig config) {
+        super(taskManager, gson, config);
+    }
+
+    @Override
+    public void register(Router router) {
+        route(router, "POST", "/batch", this::post);
+    }
+
+    private void post(Request request) throws IOException {
+        HttpExchange exchange = request.exchange();
+        List<BatchOperation> operations;
+        try {
+            JsonArray body = readJson(exchange, JsonArray.class);
+            if (body == null) {
+                sendNotFound(exchange, "Тело запроса не может быть пустым.");
+                return;
+            }
+            operations = parseOperations(body);
+        } catch (JsonParseException | IllegalArgumentException | IllegalStateException
+                 | ClassCastException e) {
+            sendBadRequest(exchange, "Некорректный пакет операций: " + e.getMessage());
+            return;
+        }
+        List<BatchResult> results = taskManager.applyBatch(operations);
+        sendJson(exchange, results, 200);
+    }
+
+    private List<BatchOperation> parseOperations(JsonArray body) {
+        List<BatchOperation> operations = new ArrayList<>(body.size());
+        for (JsonElement element : body) {
+            JsonObject operation = element.getAsJsonObject();
+            BatchAction action = BatchAction.valueOf(required(operation, "action").getAsString());
+            TaskType type = TaskType.valueOf(required(operation, "type").getAsString());
+            if (action == BatchAction.DELETE) {
+                operations.add(BatchOperation.delete(type, required(operation, "id").getAsInt()));
+                continue;
+            }
+            Task task = gson.fromJson(required(operation, "task"), switch (type) {
+                case TASK -> Task.class;
+                case EPIC -> Epic.class;
+                case SUBTASK -> Subtask.class;
+            });
+            operations.add(action == BatchAction.CREATE ? BatchOperation.create(task) : BatchOperation.update(task));
+        }
+        return operations;
+    }
+
+    private static JsonElement required(JsonObject operation, String field) {
+        JsonElement value = operation.get(field);
+        if (value == null || value.isJsonNull()) {
+            throw new IllegalArgumentException("нет поля " + field);
+        }
+        return value;
+    }
+}
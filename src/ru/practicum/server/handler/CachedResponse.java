@@ -0,0 +1,70 @@
+package ru.practicum.server.handler;
+
+import ru.practicum.server.adapter.TaskProjection;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Случайная метка экземпляра в ETag не даёт старому тегу клиента совпасть с версией после перезапуска.
+final class CachedResponse {
+
+    static final class Entry {
+        private final long version;
+        private final byte[] body;
+        private final Map<ContentEncoding, byte[]> encoded = new EnumMap<>(ContentEncoding.class);
+
+        Entry(long version, byte[] body) {
+            this.version = version;
+            this.body = body;
+        }
+
+        byte[] body() {
+            return body;
+        }
+
+        synchronized byte[] encoded(ContentEncoding encoding) throws IOException {
+            byte[] bytes = encoded.get(encoding);
+            if (bytes == null) {
+                bytes = encoding.encode(body);
+                encoded.put(encoding, bytes);
+            }
+            return bytes;
+        }
+    }
+
+    private static final int MAX_PROJECTIONS = 16;
+
+    private final String instanceTag = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private volatile Entry entry;
+    private final Map<TaskProjection, CachedResponse> projections = new ConcurrentHashMap<>();
+
+    String etagFor(long version, ContentEncoding encoding) {
+        String suffix = encoding == ContentEncoding.IDENTITY ? "" : "-" + encoding.token();
+        return "\"" + instanceTag + "-" + version + suffix + "\"";
+    }
+
+    CachedResponse forProjection(TaskProjection projection) {
+        CachedResponse cache = projections.get(projection);
+        if (cache == null) {
+            if (projections.size() >= MAX_PROJECTIONS) {
+                return new CachedResponse();
+            }
+            cache = projections.computeIfAbsent(projection, key -> new CachedResponse());
+        }
+        return cache;
+    }
+
+    Entry get(long version) {
+        Entry current = entry;
+        return current != null && current.version == version ? current : null;
+    }
+
+    Entry put(long version, byte[] body) {
+        Entry created = new Entry(version, body);
+        entry = created;
+        return created;
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.server.handler;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+enum ContentEncoding {
+    IDENTITY(null),
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private static final int COMPRESSOR_BUFFER = 8 * 1024;
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    String token() {
+        return token;
+    }
+
+    // Явно указанное q кодировки важнее "*": звёздочка решает только за кодировки, которых нет в заголовке.
+    static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return IDENTITY;
+        }
+        if (accepts(acceptEncoding, "gzip")) {
+            return GZIP;
+        }
+        return accepts(acceptEncoding, "deflate") ? DEFLATE : IDENTITY;
+    }
+
+    static boolean acceptsIdentity(String acceptEncoding) {
+        return acceptEncoding == null || accepts(acceptEncoding, "identity");
+    }
+
+    private static boolean accepts(String acceptEncoding, String coding) {
+        Boolean wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            int semicolon = part.indexOf(';');
+            String name = (semicolon < 0 ? part : part.substring(0, semicolon)).trim().toLowerCase();
+            boolean acceptable = semicolon < 0 || !isZeroQuality(part.substring(semicolon + 1));
+            if (name.equals(coding)) {
+                return acceptable;
+            }
+            if (name.equals("*")) {
+                wildcard = acceptable;
+            }
+        }
+        return wildcard != null ? wildcard : coding.equals("identity");
+    }
+
+    private static boolean isZeroQuality(String parameters) {
+        String value = parameters.trim();
+        if (!value.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(value.substring(2).trim()) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    OutputStream wrap(OutputStream out) throws IOException {
+        return switch (this) {
+            case IDENTITY -> out;
+            case GZIP -> new GZIPOutputStream(out, COMPRESSOR_BUFFER);
+            case DEFLATE -> new DeflaterOutputStream(new BufferedOutputStream(out, COMPRESSOR_BUFFER));
+        };
+    }
+
+    byte[] encode(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream out = wrap(buffer)) {
+            out.write(body);
+        }
+        return buffer.toByteArray();
+    }
+}
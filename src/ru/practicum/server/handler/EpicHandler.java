@@ -1,77 +1,82 @@
 package ru.practicum.server.handler;
 
 import com.google.gson.Gson;
-import com.sun.net.httpserver.HttpExchange;
+import ru.practicum.enums.TaskCollection;
 import ru.practicum.manager.TaskManager;
+import ru.practicum.server.Request;
+import ru.practicum.server.Router;
+import ru.practicum.server.ServerConfig;
 import ru.practicum.task.Epic;
 import ru.practicum.task.Subtask;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 public class EpicHandler extends BaseHttpHandler {
 
+    private final CachedResponse listCache = new CachedResponse();
+
     public EpicHandler(TaskManager taskManager, Gson gson) {
         super(taskManager, gson);
     }
 
+    public EpicHandler(TaskManager taskManager, Gson gson, ServerConfig config) {
+        super(taskManager, gson, config);
+    }
+
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        try {
-            String method = exchange.getRequestMethod();
-            String path = exchange.getRequestURI().getPath();
-            String query = exchange.getRequestURI().getQuery();
+    public void register(Router router) {
+        route(router, "GET", "/epics", this::get);
+        route(router, "GET", "/epics/{id}", request -> getById(request, request.pathInt("id")));
+        route(router, "GET", "/epics/{id}/subtasks", this::getSubtasks);
+        route(router, "POST", "/epics", this::save);
+        route(router, "DELETE", "/epics", this::delete);
+        route(router, "DELETE", "/epics/{id}", request -> deleteById(request, request.pathInt("id")));
+    }
 
-            switch (method) {
-                case "GET":
-                    if (query != null && query.contains("id=")) {
-                        int id = Integer.parseInt(query.substring(query.indexOf("id=") + 3));
-                        Epic epic = taskManager.getEpicByID(id);
-                        sendText(exchange, gson.toJson(epic), 200);
-                    } else if (path.matches("^/epics/\\d+/subtasks$")) {
-                        int epicId = parseIdFromPath(exchange);
-                        if (epicId != -1) {
-                            List<Subtask> subtasks = taskManager.getEpicSubtasks(epicId);
-                            sendText(exchange, gson.toJson(subtasks), 200);
-                        } else {
-                            sendNotFound(exchange, "Некорректный ID эпика в пути.");
-                        }
-                    } else if (path.equals("/epics")) {
-                        List<Epic> epics = taskManager.getEpics();
-                        sendText(exchange, gson.toJson(epics), 200);
-                    } else {
-                        sendNotFound(exchange, "Эндпоинт не найден");
-                    }
-                    break;
-                case "POST":
-                    InputStream is = exchange.getRequestBody();
-                    String body = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-                    if (body.isEmpty()) {
-                        sendNotFound(exchange, "Тело запроса не может быть пустым.");
-                        break;
-                    }
-                    Epic epic = gson.fromJson(body, Epic.class);
-                    if (epic.getId() == 0) {
-                        Epic createdEpic = taskManager.addEpic(epic);
-                        sendText(exchange, gson.toJson(createdEpic), 201);
-                    }
-                    break;
-                case "DELETE":
-                    if (query != null && query.contains("id=")) {
-                        int id = Integer.parseInt(query.substring(query.indexOf("id=") + 3));
-                        taskManager.deleteEpicByID(id);
-                        sendText(exchange, "Эпик удален", 201);
-                    } else {
-                        sendNotFound(exchange, "Эндпоинт не найден");
-                    }
-                    break;
-                default:
-                    sendText(exchange, "Неверный метод", 405);
-            }
-        } catch (Exception e) {
-            handleExceptions(exchange, e);
+    private void get(Request request) throws IOException {
+        if (request.hasQuery("ids")) {
+            sendLookup(request.exchange(), request.query("ids"), taskManager::getEpicsByIds);
+        } else if (request.hasQuery("id")) {
+            getById(request, request.queryInt("id", 0));
+        } else {
+            sendCachedTasks(request.exchange(), listCache, TaskCollection.EPICS, taskManager::getEpics,
+                    projection(request));
         }
     }
-}
\ No newline at end of file
+
+    private void getById(Request request, int id) throws IOException {
+        Epic epic = taskManager.getEpicByID(id);
+        sendTasks(request.exchange(), epic, projection(request));
+    }
+
+    private void getSubtasks(Request request) throws IOException {
+        List<Subtask> subtasks = taskManager.getEpicSubtasks(request.pathInt("id"));
+        sendJson(request.exchange(), subtasks, 200);
+    }
+
+    private void save(Request request) throws IOException {
+        Epic epic = readJson(request.exchange(), Epic.class);
+        if (epic == null) {
+            sendNotFound(request.exchange(), "Тело запроса не может быть пустым.");
+            return;
+        }
+        if (epic.getId() == 0) {
+            Epic createdEpic = taskManager.addEpic(epic);
+            sendJson(request.exchange(), createdEpic, 201);
+        }
+    }
+
+    private void delete(Request request) throws IOException {
+        if (request.hasQuery("id")) {
+            deleteById(request, request.queryInt("id", 0));
+        } else {
+            sendNotFound(request.exchange(), "Эндпоинт не найден");
+        }
+    }
+
+    private void deleteById(Request request, int id) throws IOException {
+        taskManager.deleteEpicByID(id);
+        sendText(request.exchange(), "Эпик удален", 201);
+    }
+}
@@ -1,30 +1,26 @@
 package ru.practicum.server.handler;
 
 import com.google.gson.Gson;
-import com.sun.net.httpserver.HttpExchange;
+import ru.practicum.enums.TaskCollection;
 import ru.practicum.manager.TaskManager;
-import ru.practicum.task.Task;
-
-import java.io.IOException;
-import java.util.List;
+import ru.practicum.server.Router;
+import ru.practicum.server.ServerConfig;
 
 public class HistoryHandler extends BaseHttpHandler {
 
+    private final CachedResponse listCache = new CachedResponse();
+
     public HistoryHandler(TaskManager taskManager, Gson gson) {
         super(taskManager, gson);
     }
 
+    public HistoryHandler(TaskManager taskManager, Gson gson, ServerConfig config) {
+        super(taskManager, gson, config);
+    }
+
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        try {
-            if ("GET".equals(exchange.getRequestMethod())) {
-                List<Task> history = taskManager.getHistory();
-                sendText(exchange, gson.toJson(history), 200);
-            } else {
-                sendText(exchange, "Неверный метод", 405);
-            }
-        } catch (Exception e) {
-            handleExceptions(exchange, e);
-        }
+    public void register(Router router) {
+        route(router, "GET", "/history", request ->
+                sendCachedJson(request.exchange(), listCache, TaskCollection.HISTORY, taskManager::getHistory));
     }
-}
\ No newline at end of file
+}
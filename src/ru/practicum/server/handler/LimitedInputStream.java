@@ -0,0 +1,52 @@
+package ru.practicum.server.handler;
+
+import ru.practicum.exception.RequestTooLargeException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+class LimitedInputStream extends FilterInputStream {
+
+    private final long limit;
+    private long remaining;
+
+    LimitedInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+        this.remaining = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            consume(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, (int) Math.min(length, remaining + 1));
+        if (n > 0) {
+            consume(n);
+        }
+        return n;
+    }
+
+    // После превышения лимита исходный поток не закрывается: остаток тела дочитывает sendTooLarge.
+    @Override
+    public void close() throws IOException {
+        if (remaining >= 0) {
+            super.close();
+        }
+    }
+
+    private void consume(int n) {
+        remaining -= n;
+        if (remaining < 0) {
+            throw new RequestTooLargeException("Тело запроса больше " + limit + " байт.");
+        }
+    }
+}
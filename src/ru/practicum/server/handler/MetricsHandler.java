@@ -0,0 +1,45 @@
+package ru.practicum.server.handler;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import ru.practicum.manager.TaskManager;
+import ru.practicum.metrics.MetricsRegistry;
+import ru.practicum.server.Request;
+import ru.practicum.server.Router;
+import ru.practicum.server.ServerConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class MetricsHandler extends BaseHttpHandler {
+
+    private final MetricsRegistry registry;
+
+    public MetricsHandler(TaskManager taskManager, Gson gson, ServerConfig config, MetricsRegistry registry) {
+        super(taskManager, gson, config);
+        this.registry = registry;
+    }
+
+    @Override
+    public void register(Router router) {
+        route(router, "GET", "/metrics", this::get);
+    }
+
+    private void get(Request request) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+            registry.writePrometheus(writer);
+        }
+        HttpExchange exchange = request.exchange();
+        exchange.getResponseHeaders().add("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, buffer.size());
+        try (OutputStream os = exchange.getResponseBody()) {
+            buffer.writeTo(os);
+        }
+        exchange.close();
+    }
+}
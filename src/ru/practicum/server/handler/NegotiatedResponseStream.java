@@ -0,0 +1,61 @@
+package ru.practicum.server.handler;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Ответ до порога уходит с Content-Length без сжатия, больший — chunked через сжимающий поток.
+class NegotiatedResponseStream extends OutputStream {
+
+    private final HttpExchange exchange;
+    private final int statusCode;
+    private final ContentEncoding encoding;
+    private final byte[] buffer;
+    private int count;
+    private OutputStream out;
+
+    NegotiatedResponseStream(HttpExchange exchange, int statusCode, ContentEncoding encoding, int bufferSize) {
+        this.exchange = exchange;
+        this.statusCode = statusCode;
+        this.encoding = encoding;
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (out == null) {
+            if (count + length <= buffer.length) {
+                System.arraycopy(bytes, offset, buffer, count, length);
+                count += length;
+                return;
+            }
+            startStreaming();
+        }
+        out.write(bytes, offset, length);
+    }
+
+    private void startStreaming() throws IOException {
+        if (encoding != ContentEncoding.IDENTITY) {
+            exchange.getResponseHeaders().set("Content-Encoding", encoding.token());
+        }
+        exchange.sendResponseHeaders(statusCode, 0);
+        out = encoding.wrap(exchange.getResponseBody());
+        out.write(buffer, 0, count);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out == null) {
+            exchange.sendResponseHeaders(statusCode, count == 0 ? -1 : count);
+            out = exchange.getResponseBody();
+            out.write(buffer, 0, count);
+        }
+        out.close();
+    }
+}
@@ -2,29 +2,68 @@ package ru.practicum.server.handler;
 
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
+import ru.practicum.enums.TaskCollection;
 import ru.practicum.manager.TaskManager;
+import ru.practicum.server.Request;
+import ru.practicum.server.Router;
+import ru.practicum.server.ServerConfig;
 import ru.practicum.task.Task;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 public class PrioritizedHandler extends BaseHttpHandler {
 
+    private final CachedResponse listCache = new CachedResponse();
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     public PrioritizedHandler(TaskManager taskManager, Gson gson) {
         super(taskManager, gson);
     }
 
+    public PrioritizedHandler(TaskManager taskManager, Gson gson, ServerConfig config) {
+        super(taskManager, gson, config);
+    }
+
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
+    public void register(Router router) {
+        route(router, "GET", "/prioritized", this::get);
+    }
+
+    private void get(Request request) throws IOException {
+        HttpExchange exchange = request.exchange();
+        if (!request.hasQuery()) {
+            sendCachedJson(exchange, listCache, TaskCollection.PRIORITIZED, taskManager::getPrioritizedTasks);
+            return;
+        }
+        List<Task> page;
+        int limit;
         try {
-            if ("GET".equals(exchange.getRequestMethod())) {
-                List<Task> prioritizedTasks = taskManager.getPrioritizedTasks();
-                sendText(exchange, gson.toJson(prioritizedTasks), 200);
+            limit = request.queryInt("limit", Integer.MAX_VALUE);
+            LocalDateTime to = parseTime(request.query("to"));
+            String cursor = request.query("cursor");
+            if (cursor != null) {
+                int separator = cursor.lastIndexOf(',');
+                page = taskManager.getPrioritizedTasksAfter(LocalDateTime.parse(cursor.substring(0, separator)),
+                        Integer.parseInt(cursor, separator + 1, cursor.length(), 10), to, limit);
             } else {
-                sendText(exchange, "Неверный метод", 405);
+                page = taskManager.getPrioritizedTasks(parseTime(request.query("from")), to, limit);
             }
-        } catch (Exception e) {
-            handleExceptions(exchange, e);
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            sendBadRequest(exchange, "Некорректные параметры выборки: " + e.getMessage());
+            return;
+        }
+        if (!page.isEmpty() && page.size() == limit) {
+            Task last = page.get(page.size() - 1);
+            exchange.getResponseHeaders().add(NEXT_CURSOR_HEADER, last.getStartTime() + "," + last.getId());
         }
+        sendJson(exchange, page, 200);
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        return value == null ? null : LocalDateTime.parse(value);
     }
-}
\ No newline at end of file
+}
@@ -1,69 +1,78 @@
 package ru.practicum.server.handler;
 
 import com.google.gson.Gson;
-import com.sun.net.httpserver.HttpExchange;
+import ru.practicum.enums.TaskCollection;
 import ru.practicum.manager.TaskManager;
+import ru.practicum.server.Request;
+import ru.practicum.server.Router;
+import ru.practicum.server.ServerConfig;
 import ru.practicum.task.Subtask;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.List;
 
 public class SubtaskHandler extends BaseHttpHandler {
 
+    private final CachedResponse listCache = new CachedResponse();
+
     public SubtaskHandler(TaskManager taskManager, Gson gson) {
         super(taskManager, gson);
     }
 
+    public SubtaskHandler(TaskManager taskManager, Gson gson, ServerConfig config) {
+        super(taskManager, gson, config);
+    }
+
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        try {
-            String method = exchange.getRequestMethod();
-            String query = exchange.getRequestURI().getQuery();
+    public void register(Router router) {
+        route(router, "GET", "/subtasks", this::get);
+        route(router, "GET", "/subtasks/{id}", request -> getById(request, request.pathInt("id")));
+        route(router, "POST", "/subtasks", this::save);
+        route(router, "DELETE", "/subtasks", this::delete);
+        route(router, "DELETE", "/subtasks/{id}", request -> deleteById(request, request.pathInt("id")));
+    }
 
-            switch (method) {
-                case "GET":
-                    if (query == null) {
-                        List<Subtask> subtasks = taskManager.getSubtasks();
-                        sendText(exchange, gson.toJson(subtasks), 200);
-                    } else {
-                        int id = Integer.parseInt(query.substring(query.indexOf("id=") + 3));
-                        Subtask subtask = taskManager.getSubtaskByID(id);
-                        sendText(exchange, gson.toJson(subtask), 200);
-                    }
-                    break;
-                case "POST":
-                    InputStream is = exchange.getRequestBody();
-                    String body = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-                    if (body.isEmpty()) {
-                        sendNotFound(exchange, "Тело запроса не может быть пустым.");
-                        break;
-                    }
-                    Subtask subtask = gson.fromJson(body, Subtask.class);
+    private void get(Request request) throws IOException {
+        if (request.hasQuery("ids")) {
+            sendLookup(request.exchange(), request.query("ids"), taskManager::getSubtasksByIds);
+        } else if (request.hasQuery("id")) {
+            getById(request, request.queryInt("id", 0));
+        } else {
+            sendCachedTasks(request.exchange(), listCache, TaskCollection.SUBTASKS, taskManager::getSubtasks,
+                    projection(request));
+        }
+    }
+
+    private void getById(Request request, int id) throws IOException {
+        Subtask subtask = taskManager.getSubtaskByID(id);
+        sendTasks(request.exchange(), subtask, projection(request));
+    }
 
-                    if (subtask.getId() == 0) {
-                        Subtask createdSubtask = taskManager.addSubtask(subtask);
-                        sendText(exchange, gson.toJson(createdSubtask), 201);
-                    } else {
-                        Subtask updatedSubtask = taskManager.updateSubtask(subtask);
-                        sendText(exchange, gson.toJson(updatedSubtask), 201);
-                    }
-                    break;
-                case "DELETE":
-                    if (query != null) {
-                        int id = Integer.parseInt(query.substring(query.indexOf("id=") + 3));
-                        taskManager.deleteSubtaskByID(id);
-                        sendText(exchange, "Подзадача удалена", 201);
-                    } else {
-                        sendNotFound(exchange, "Эндпоинт не найден");
-                    }
-                    break;
-                default:
-                    sendText(exchange, "Неверный метод", 405);
-            }
-        } catch (Exception e) {
-            handleExceptions(exchange, e);
+    private void save(Request request) throws IOException {
+        Subtask subtask = readJson(request.exchange(), Subtask.class);
+        if (subtask == null) {
+            sendNotFound(request.exchange(), "Тело запроса не может быть пустым.");
+            return;
         }
+
+        if (subtask.getId() == 0) {
+            Subtask createdSubtask = taskManager.addSubtask(subtask);
+            sendJson(request.exchange(), createdSubtask, 201);
+        } else {
+            Subtask updatedSubtask = taskManager.updateSubtask(subtask);
+            sendJson(request.exchange(), updatedSubtask, 201);
+        }
+    }
+
+    private void delete(Request request) throws IOException {
+        if (request.hasQuery("id")) {
+            deleteById(request, request.queryInt("id", 0));
+        } else {
+            sendNotFound(request.exchange(), "Эндпоинт не найден");
+        }
+    }
+
+    private void deleteById(Request request, int id) throws IOException {
+        taskManager.deleteSubtaskByID(id);
+        sendText(request.exchange(), "Подзадача удалена", 201);
     }
-}
\ No newline at end of file
+}
@@ -1,71 +1,78 @@
 package ru.practicum.server.handler;
 
 import com.google.gson.Gson;
-import com.sun.net.httpserver.HttpExchange;
+import ru.practicum.enums.TaskCollection;
 import ru.practicum.manager.TaskManager;
+import ru.practicum.server.Request;
+import ru.practicum.server.Router;
+import ru.practicum.server.ServerConfig;
 import ru.practicum.task.Task;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.List;
 
 public class TaskHandler extends BaseHttpHandler {
 
+    private final CachedResponse listCache = new CachedResponse();
+
     public TaskHandler(TaskManager taskManager, Gson gson) {
         super(taskManager, gson);
     }
 
+    public TaskHandler(TaskManager taskManager, Gson gson, ServerConfig config) {
+        super(taskManager, gson, config);
+    }
+
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        try {
-            String method = exchange.getRequestMethod();
-            String query = exchange.getRequestURI().getQuery();
+    public void register(Router router) {
+        route(router, "GET", "/tasks", this::get);
+        route(router, "GET", "/tasks/{id}", request -> getById(request, request.pathInt("id")));
+        route(router, "POST", "/tasks", this::save);
+        route(router, "DELETE", "/tasks", this::delete);
+        route(router, "DELETE", "/tasks/{id}", request -> deleteById(request, request.pathInt("id")));
+    }
 
-            switch (method) {
-                case "GET":
-                    if (query == null) {
-                        List<Task> tasks = taskManager.getTasks();
-                        String response = gson.toJson(tasks);
-                        sendText(exchange, response, 200);
-                    } else {
-                        int id = Integer.parseInt(query.substring(query.indexOf("id=") + 3));
-                        Task task = taskManager.getTaskByID(id);
-                        String response = gson.toJson(task);
-                        sendText(exchange, response, 200);
-                    }
-                    break;
-                case "POST":
-                    InputStream is = exchange.getRequestBody();
-                    String body = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-                    if (body.isEmpty()) {
-                        sendNotFound(exchange, "Тело запроса не может быть пустым.");
-                        break;
-                    }
-                    Task task = gson.fromJson(body, Task.class);
+    private void get(Request request) throws IOException {
+        if (request.hasQuery("ids")) {
+            sendLookup(request.exchange(), request.query("ids"), taskManager::getTasksByIds);
+        } else if (request.hasQuery("id")) {
+            getById(request, request.queryInt("id", 0));
+        } else {
+            sendCachedTasks(request.exchange(), listCache, TaskCollection.TASKS, taskManager::getTasks,
+                    projection(request));
+        }
+    }
+
+    private void getById(Request request, int id) throws IOException {
+        Task task = taskManager.getTaskByID(id);
+        sendTasks(request.exchange(), task, projection(request));
+    }
 
-                    if (task.getId() == 0) {
-                        Task createdTask = taskManager.addTask(task);
-                        sendText(exchange, gson.toJson(createdTask), 201);
-                    } else {
-                        Task updatedTask = taskManager.updateTask(task);
-                        sendText(exchange, gson.toJson(updatedTask), 201);
-                    }
-                    break;
-                case "DELETE":
-                    if (query != null) {
-                        int id = Integer.parseInt(query.substring(query.indexOf("id=") + 3));
-                        taskManager.deleteTaskByID(id);
-                        sendText(exchange, "Задача удалена", 201);
-                    } else {
-                        sendNotFound(exchange, "Эндпоинт не найден");
-                    }
-                    break;
-                default:
-                    sendText(exchange, "Неверный метод", 405);
-            }
-        } catch (Exception e) {
-            handleExceptions(exchange, e);
+    private void save(Request request) throws IOException {
+        Task task = readJson(request.exchange(), Task.class);
+        if (task == null) {
+            sendNotFound(request.exchange(), "Тело запроса не может быть пустым.");
+            return;
         }
+
+        if (task.getId() == 0) {
+            Task createdTask = taskManager.addTask(task);
+            sendJson(request.exchange(), createdTask, 201);
+        } else {
+            Task updatedTask = taskManager.updateTask(task);
+            sendJson(request.exchange(), updatedTask, 201);
+        }
+    }
+
+    private void delete(Request request) throws IOException {
+        if (request.hasQuery("id")) {
+            deleteById(request, request.queryInt("id", 0));
+        } else {
+            sendNotFound(request.exchange(), "Эндпоинт не найден");
+        }
+    }
+
+    private void deleteById(Request request, int id) throws IOException {
+        taskManager.deleteTaskByID(id);
+        sendText(request.exchange(), "Задача удалена", 201);
     }
-}
\ No newline at end of file
+}
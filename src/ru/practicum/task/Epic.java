@@ -2,17 +2,19 @@ package ru.practicum.task;
 
 import ru.practicum.enums.Status;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 
 public class Epic extends Task {
 
     private final List<Subtask> subtaskList = new ArrayList<>();
     private LocalDateTime endTime;
+    private transient SubtaskAggregates aggregates;
+    private transient Map<Integer, Integer> positions;
 
     public Epic(String name, String description) {
         super(name, description);
@@ -23,25 +25,42 @@ public class Epic extends Task {
         super(id, name, description, status);
     }
 
+    public Epic(Epic source) {
+        super(source.id, source.name, source.description, source.status);
+        this.startTime = source.startTime;
+        this.duration = source.duration;
+        this.endTime = source.endTime;
+        this.subtaskList.addAll(source.subtaskList);
+    }
+
     public void updateEpicTime() {
-        this.duration = subtaskList.stream()
-                .map(Task::getDuration)
-                .filter(Objects::nonNull)
-                .reduce(Duration.ZERO, Duration::plus);
-
-        this.startTime = subtaskList.stream()
-                .map(Task::getStartTime)
-                .filter(Objects::nonNull)
-                .min(LocalDateTime::compareTo)
-                .orElse(null);
-
-        this.endTime = subtaskList.stream()
-                .map(Task::getEndTime)
-                .filter(Objects::nonNull)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
+        this.duration = aggregates().getDuration();
+        this.startTime = aggregates().getStartTime();
+        this.endTime = aggregates().getEndTime();
     }
 
+    private void refresh() {
+        this.status = aggregates().getStatus();
+        updateEpicTime();
+    }
+
+    private SubtaskAggregates aggregates() {
+        if (aggregates == null) {
+            aggregates = new SubtaskAggregates();
+            subtaskList.forEach(aggregates::add);
+        }
+        return aggregates;
+    }
+
+    private Map<Integer, Integer> positions() {
+        if (positions == null) {
+            positions = new HashMap<>();
+            for (int i = 0; i < subtaskList.size(); i++) {
+                positions.put(subtaskList.get(i).getId(), i);
+            }
+        }
+        return positions;
+    }
 
     @Override
     public LocalDateTime getEndTime() {
@@ -49,20 +68,42 @@ public class Epic extends Task {
     }
 
     public void addSubtask(Subtask subtask) {
-        subtaskList.add(subtask);
+        updateSubtask(subtask);
     }
 
-    public void removeSubtask(Subtask subtask) {
-        subtaskList.remove(subtask);
+    public void updateSubtask(Subtask subtask) {
+        Integer index = positions().get(subtask.getId());
+        if (index == null) {
+            positions.put(subtask.getId(), subtaskList.size());
+            subtaskList.add(subtask);
+        } else {
+            subtaskList.set(index, subtask);
+        }
+        aggregates().add(subtask);
+        refresh();
     }
 
+    // На место удалённой подзадачи переносится последняя, поэтому порядок после удаления не сохраняется.
+    public void removeSubtask(Subtask subtask) {
+        Integer index = positions().remove(subtask.getId());
+        if (index != null) {
+            Subtask last = subtaskList.remove(subtaskList.size() - 1);
+            if (index < subtaskList.size()) {
+                subtaskList.set(index, last);
+                positions.put(last.getId(), index);
+            }
+        }
+        aggregates().remove(subtask.getId());
+        refresh();
+    }
 
     public void clearSubtasks() {
         subtaskList.clear();
-        updateEpicTime();
+        positions().clear();
+        aggregates().clear();
+        refresh();
     }
 
-
     public List<Subtask> getSubtaskList() {
         return Collections.unmodifiableList(subtaskList);
     }
@@ -0,0 +1,113 @@
+package ru.practicum.task;
+
+import ru.practicum.enums.Status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+class SubtaskAggregates {
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final NavigableMap<LocalDateTime, Integer> starts = new TreeMap<>();
+    private final NavigableMap<LocalDateTime, Integer> ends = new TreeMap<>();
+    private Duration totalDuration = Duration.ZERO;
+    private int newCount;
+    private int doneCount;
+
+    private static class Entry {
+        final Status status;
+        final Duration duration;
+        final LocalDateTime startTime;
+        final LocalDateTime endTime;
+
+        Entry(Subtask subtask) {
+            this.status = subtask.getStatus();
+            this.duration = subtask.getDuration();
+            this.startTime = subtask.getStartTime();
+            this.endTime = subtask.getEndTime();
+        }
+    }
+
+    void add(Subtask subtask) {
+        remove(subtask.getId());
+        Entry entry = new Entry(subtask);
+        entries.put(subtask.getId(), entry);
+
+        if (entry.status == Status.NEW) {
+            newCount++;
+        } else if (entry.status == Status.DONE) {
+            doneCount++;
+        }
+        if (entry.duration != null) {
+            totalDuration = totalDuration.plus(entry.duration);
+        }
+        increment(starts, entry.startTime);
+        increment(ends, entry.endTime);
+    }
+
+    void remove(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+
+        if (entry.status == Status.NEW) {
+            newCount--;
+        } else if (entry.status == Status.DONE) {
+            doneCount--;
+        }
+        if (entry.duration != null) {
+            totalDuration = totalDuration.minus(entry.duration);
+        }
+        decrement(starts, entry.startTime);
+        decrement(ends, entry.endTime);
+    }
+
+    void clear() {
+        entries.clear();
+        starts.clear();
+        ends.clear();
+        totalDuration = Duration.ZERO;
+        newCount = 0;
+        doneCount = 0;
+    }
+
+    Status getStatus() {
+        int size = entries.size();
+        if (size == 0 || newCount == size) {
+            return Status.NEW;
+        }
+        if (doneCount == size) {
+            return Status.DONE;
+        }
+        return Status.IN_PROGRESS;
+    }
+
+    Duration getDuration() {
+        return totalDuration;
+    }
+
+    LocalDateTime getStartTime() {
+        return starts.isEmpty() ? null : starts.firstKey();
+    }
+
+    LocalDateTime getEndTime() {
+        return ends.isEmpty() ? null : ends.lastKey();
+    }
+
+    private static void increment(NavigableMap<LocalDateTime, Integer> counts, LocalDateTime time) {
+        if (time != null) {
+            counts.merge(time, 1, Integer::sum);
+        }
+    }
+
+    private static void decrement(NavigableMap<LocalDateTime, Integer> counts, LocalDateTime time) {
+        if (time != null) {
+            counts.computeIfPresent(time, (key, count) -> count == 1 ? null : count - 1);
+        }
+    }
+}
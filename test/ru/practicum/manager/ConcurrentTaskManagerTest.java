@@ -0,0 +1,167 @@
+package ru.practicum.manager;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.enums.Status;
+import ru.practicum.exception.TaskValidationException;
+import ru.practicum.server.HttpTaskServer;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 300;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Override
+    @BeforeEach
+    void setUp() {
+        taskManager = new ConcurrentTaskManager();
+    }
+
+    @Test
+    void shouldKeepInvariantsUnderConcurrentReadersAndWriters() throws Exception {
+        Epic epic = taskManager.addEpic(new Epic("Эпик", "Общий эпик"));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Integer> deletedIds = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    LocalDateTime slot = BASE.plusMinutes((thread * OPERATIONS + i) * 30L);
+                    Task task = taskManager.addTask(new Task("Задача", "Описание", Status.NEW,
+                            slot, Duration.ofMinutes(10)));
+                    taskManager.addSubtask(subtaskAt(epic.getId(), slot.plusMinutes(10)));
+
+                    Task overlapping = new Task("Пересекается", "Описание", Status.NEW,
+                            slot.plusMinutes(5), Duration.ofMinutes(10));
+                    assertThrows(TaskValidationException.class, () -> taskManager.addTask(overlapping));
+
+                    assertEquals(task, taskManager.getTaskByID(task.getId()));
+                    taskManager.getEpicByID(epic.getId());
+                    taskManager.getPrioritizedTasks();
+                    taskManager.getEpicSubtasks(epic.getId());
+                    if (i % 3 == 0) {
+                        taskManager.deleteTaskByID(task.getId());
+                        deletedIds.add(task.getId());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        int total = THREADS * OPERATIONS;
+        List<Task> tasks = taskManager.getTasks();
+        assertEquals(total - deletedIds.size(), tasks.size());
+        assertEquals(total, taskManager.getSubtasks().size());
+        assertEquals(total, taskManager.getEpicSubtasks(epic.getId()).size());
+        assertEquals(tasks.size() + total, taskManager.getPrioritizedTasks().size());
+
+        Set<Integer> ids = new HashSet<>();
+        tasks.forEach(task -> ids.add(task.getId()));
+        taskManager.getSubtasks().forEach(subtask -> ids.add(subtask.getId()));
+        assertEquals(tasks.size() + total, ids.size(), "Идентификаторы не должны повторяться.");
+
+        for (Task viewed : taskManager.getHistory()) {
+            assertFalse(deletedIds.contains(viewed.getId()), "Удалённая задача осталась в истории.");
+        }
+        Epic savedEpic = taskManager.getEpicByID(epic.getId());
+        assertEquals(BASE.plusMinutes(10), savedEpic.getStartTime());
+        assertEquals(Duration.ofMinutes(10L * total), savedEpic.getDuration());
+    }
+
+    @Test
+    void shouldSerializeConsistentEpicsWhileSubtasksChange() throws Exception {
+        Epic epic = taskManager.addEpic(new Epic("Эпик", "Общий эпик"));
+        List<Subtask> subtasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            subtasks.add(taskManager.addSubtask(new Subtask("Подзадача " + i, "...", epic.getId())));
+        }
+        Gson gson = HttpTaskServer.getGson();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            final boolean writer = t % 2 == 0;
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    if (writer) {
+                        Subtask subtask = subtasks.get((thread * OPERATIONS + i) % subtasks.size());
+                        Status status = i % 2 == 0 ? Status.DONE : Status.NEW;
+                        taskManager.updateSubtask(new Subtask(subtask.getId(), subtask.getName(), "...", status,
+                                epic.getId()));
+                        taskManager.addSubtask(new Subtask("Ещё", "...", epic.getId()));
+                    } else {
+                        assertConsistent(gson.toJson(taskManager.getEpics()));
+                        assertConsistent("[" + gson.toJson(taskManager.getEpicByID(epic.getId())) + "]");
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+    }
+
+    // Статус эпика в JSON должен соответствовать ровно тем подзадачам, что выведены вместе с ним.
+    private void assertConsistent(String json) {
+        for (JsonElement element : JsonParser.parseString(json).getAsJsonArray()) {
+            JsonObject epic = element.getAsJsonObject();
+            int newCount = 0;
+            int doneCount = 0;
+            JsonArray subtaskList = epic.getAsJsonArray("subtaskList");
+            for (JsonElement subtask : subtaskList) {
+                String status = subtask.getAsJsonObject().get("status").getAsString();
+                newCount += status.equals("NEW") ? 1 : 0;
+                doneCount += status.equals("DONE") ? 1 : 0;
+            }
+            String expected = newCount == subtaskList.size() ? "NEW"
+                    : doneCount == subtaskList.size() ? "DONE" : "IN_PROGRESS";
+            assertEquals(expected, epic.get("status").getAsString(), json);
+        }
+    }
+
+    private Subtask subtaskAt(int epicId, LocalDateTime startTime) {
+        Subtask subtask = new Subtask("Подзадача", "...", epicId);
+        subtask.setStartTime(startTime);
+        subtask.setDuration(Duration.ofMinutes(10));
+        return subtask;
+    }
+}
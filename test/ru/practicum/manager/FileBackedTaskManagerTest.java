@@ -3,13 +3,20 @@ package ru.practicum.manager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.practicum.enums.Durability;
+import ru.practicum.enums.SaveMode;
+import ru.practicum.enums.SnapshotFormat;
 import ru.practicum.enums.Status;
+import ru.practicum.exception.ManagerSaveException;
+import ru.practicum.exception.TaskValidationException;
 import ru.practicum.task.Epic;
 import ru.practicum.task.Subtask;
 import ru.practicum.task.Task;
+import ru.practicum.task.TaskType;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -36,6 +43,8 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
     void tearDown() {
         if (tempFile != null) {
             tempFile.delete();
+            new File(tempFile.getPath() + ".log").delete();
+            new File(tempFile.getPath() + ".log.old").delete();
         }
     }
 
@@ -93,4 +102,229 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
         assertTrue(loadedManager.getTasks().isEmpty(), "Задачи должны отсутствовать.");
         assertTrue(loadedManager.getEpics().isEmpty(), "Эпики должны отсутствовать.");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReplayJournalOnLoad() {
+        FileBackedTaskManager journaled = new FileBackedTaskManager(tempFile, SaveMode.JOURNAL);
+        Task task = journaled.addTask(new Task("Задача", "Описание"));
+        Task removed = journaled.addTask(new Task("Удаляемая", "Описание"));
+        Epic epic = journaled.addEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = journaled.addSubtask(new Subtask("Подзадача", "...", epic.getId()));
+        journaled.updateTask(new Task(task.getId(), "Задача v2", "Описание", Status.DONE));
+        journaled.updateSubtask(new Subtask(subtask.getId(), "Подзадача", "...", Status.DONE, epic.getId()));
+        journaled.deleteTaskByID(removed.getId());
+        journaled.close();
+
+        assertFalse(tempFile.exists(), "В режиме журнала снимок не должен переписываться на каждое изменение.");
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile, SaveMode.JOURNAL);
+        assertEquals(1, loadedManager.getTasks().size());
+        assertEquals("Задача v2", loadedManager.getTaskByID(task.getId()).getName());
+        assertEquals(Status.DONE, loadedManager.getEpicByID(epic.getId()).getStatus());
+        assertEquals(1, loadedManager.getEpicSubtasks(epic.getId()).size());
+        assertTrue(tempFile.exists(), "После чтения журнал должен быть свёрнут в снимок.");
+        assertFalse(new File(tempFile.getPath() + ".log").exists());
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldDropOnlyTornLastJournalRecord() throws IOException {
+        File journalFile = new File(tempFile.getPath() + ".log");
+        Files.writeString(journalFile.toPath(), "PUT,1,TASK,Задача,NEW,Описание,,null,0\nPUT,2,TASK,Обры");
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile, SaveMode.JOURNAL);
+        assertEquals(1, loadedManager.getTasks().size());
+        assertEquals("Задача", loadedManager.getTaskByID(1).getName());
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldRejectCorruptedJournalRecordAndKeepJournal() throws IOException {
+        File journalFile = new File(tempFile.getPath() + ".log");
+        Files.writeString(journalFile.toPath(), "PUT,1,TASK,Задача,NEW,Описание,,null,0\n"
+                + "PUT,2,TASK,Испорчена\n"
+                + "PUT,3,TASK,Задача,NEW,Описание,,null,0\n");
+
+        assertThrows(ManagerSaveException.class,
+                () -> FileBackedTaskManager.loadFromFile(tempFile, SaveMode.JOURNAL));
+        assertTrue(journalFile.exists(), "Журнал нельзя удалять после неполного чтения.");
+        assertFalse(tempFile.exists());
+    }
+
+    @Test
+    void shouldCompactJournalIntoSnapshot() {
+        FileBackedTaskManager journaled = new FileBackedTaskManager(tempFile, SaveMode.JOURNAL, Durability.NONE, SnapshotFormat.CSV, 5);
+        for (int i = 0; i < 12; i++) {
+            journaled.addTask(new Task("Задача " + i, "Описание"));
+        }
+        journaled.deleteTasks();
+        Task last = journaled.addTask(new Task("Последняя", "Описание"));
+        journaled.close();
+
+        assertTrue(tempFile.exists(), "Сжатие должно записать снимок.");
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(List.of(last), loadedManager.getTasks());
+        assertEquals(last.getId() + 1, loadedManager.addTask(new Task("Новая", "Описание")).getId());
+    }
+
+    @Test
+    void shouldPersistJournalWithEveryDurability() {
+        for (Durability durability : Durability.values()) {
+            FileBackedTaskManager journaled = new FileBackedTaskManager(tempFile, SaveMode.JOURNAL, durability);
+            Task task = journaled.addTask(new Task("Задача " + durability, "Описание"));
+            journaled.close();
+
+            FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile, SaveMode.JOURNAL);
+            assertEquals(task.getName(), loadedManager.getTaskByID(task.getId()).getName(),
+                    "Задача не восстановлена при durability=" + durability);
+            loadedManager.close();
+            tearDown();
+        }
+    }
+
+    @Test
+    void shouldWriteBatchToJournalAtOnce() throws IOException {
+        FileBackedTaskManager journaled = new FileBackedTaskManager(tempFile, SaveMode.JOURNAL, Durability.SYNC);
+        Task kept = journaled.addTask(new Task("Задача", "Описание"));
+        File journalFile = new File(tempFile.getPath() + ".log");
+        long before = journalFile.length();
+
+        List<BatchResult> results = journaled.applyBatch(List.of(
+                BatchOperation.create(new Task("Новая", "Описание")),
+                BatchOperation.update(new Task(kept.getId(), "Задача v2", "Описание", Status.DONE)),
+                BatchOperation.delete(TaskType.EPIC, 999),
+                BatchOperation.create(new Epic("Эпик", "Описание"))));
+        assertEquals(4, results.size());
+        assertEquals(3, Files.readAllLines(journalFile.toPath()).size() - 1,
+                "Неудачная операция не должна попадать в журнал.");
+        assertTrue(journalFile.length() > before);
+        journaled.close();
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile, SaveMode.JOURNAL);
+        assertEquals(2, loadedManager.getTasks().size());
+        assertEquals("Задача v2", loadedManager.getTaskByID(kept.getId()).getName());
+        assertEquals(1, loadedManager.getEpics().size());
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldResolveItemsByIdBeforeFullLoadAndValidateAfterIt() {
+        Epic epic = taskManager.addEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = new Subtask("Подзадача", "...", epic.getId());
+        subtask.setStatus(Status.DONE);
+        subtask.setStartTime(LocalDateTime.of(2025, 8, 10, 12, 0));
+        subtask.setDuration(Duration.ofMinutes(60));
+        taskManager.addSubtask(subtask);
+        Task task = taskManager.addTask(new Task("Задача", "Описание"));
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+        Epic loadedEpic = loadedManager.getEpicByID(epic.getId());
+        assertEquals(Status.DONE, loadedEpic.getStatus());
+        assertEquals(subtask.getEndTime(), loadedEpic.getEndTime());
+        assertSame(loadedEpic.getSubtaskList().get(0), loadedManager.getSubtaskByID(subtask.getId()));
+
+        Task overlapping = new Task("Пересекается", "Описание", Status.NEW,
+                LocalDateTime.of(2025, 8, 10, 12, 30), Duration.ofMinutes(10));
+        assertThrows(TaskValidationException.class, () -> loadedManager.addTask(overlapping));
+        assertEquals(task.getId() + 1, loadedManager.addTask(new Task("Новая", "Описание")).getId());
+        assertEquals(2, loadedManager.getTasks().size());
+    }
+
+    @Test
+    void shouldReadCrlfSnapshotLazily() throws IOException {
+        Files.writeString(tempFile.toPath(), "id,type,name,status,description,epic,startTime,duration\r\n"
+                + "1,TASK,Задача,NEW,Описание,,2025-08-10T12:00,30\r\n"
+                + "2,EPIC,Эпик,DONE,Описание,,null,0\r\n"
+                + "3,SUBTASK,Подзадача,DONE,Описание,2,null,45\r\n");
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(Duration.ofMinutes(30), loadedManager.getTaskByID(1).getDuration());
+        assertEquals(Duration.ofMinutes(45), loadedManager.getSubtaskByID(3).getDuration());
+        assertEquals(Status.DONE, loadedManager.getEpicByID(2).getStatus());
+        assertEquals(1, loadedManager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void shouldMaterializeLazySnapshotFromConcurrentReaders() throws InterruptedException {
+        int count = 20_000;
+        for (int i = 0; i < count; i++) {
+            taskManager.tasks.put(i + 1, new Task(i + 1, "Задача " + i, "Описание", Status.NEW));
+        }
+        taskManager.exportTo(tempFile, SnapshotFormat.CSV);
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            int first = r;
+            readers[r] = new Thread(() -> {
+                for (int id = first + 1; id <= count; id += readers.length) {
+                    loadedManager.getTasksByIds(new int[]{id});
+                }
+                loadedManager.getTasks();
+            });
+            readers[r].start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertEquals(count, loadedManager.getTasks().size());
+        for (int id = 1; id <= count; id++) {
+            assertEquals(id, loadedManager.getTaskByID(id).getId());
+        }
+    }
+
+    @Test
+    void shouldSaveAndLoadBinarySnapshotAndConvertFromCsv() {
+        Task task = new Task("Задача", "Описание", Status.IN_PROGRESS,
+                LocalDateTime.of(2025, 8, 10, 10, 0, 15), Duration.ofMinutes(90));
+        taskManager.addTask(task);
+        Epic epic = taskManager.addEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = new Subtask("Подзадача", "...", epic.getId());
+        subtask.setStatus(Status.DONE);
+        taskManager.addSubtask(subtask);
+
+        FileBackedTaskManager converted = FileBackedTaskManager.loadFromFile(tempFile, SaveMode.SNAPSHOT,
+                Durability.NONE, SnapshotFormat.BINARY);
+        converted.addTask(new Task("Ещё задача", "Описание"));
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(2, loadedManager.getTasks().size());
+        Task loadedTask = loadedManager.getTaskByID(task.getId());
+        assertEquals(task.getStartTime(), loadedTask.getStartTime());
+        assertEquals(task.getDuration(), loadedTask.getDuration());
+        assertEquals(Status.IN_PROGRESS, loadedTask.getStatus());
+        assertEquals(Status.DONE, loadedManager.getEpicByID(epic.getId()).getStatus());
+        assertEquals(1, loadedManager.getEpicSubtasks(epic.getId()).size());
+        assertEquals(1, loadedManager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void shouldWriteLatestStateInBackground() {
+        FileBackedTaskManager background = new FileBackedTaskManager(tempFile, SaveMode.BACKGROUND_SNAPSHOT);
+        for (int i = 0; i < 200; i++) {
+            background.addTask(new Task("Задача " + i, "Описание"));
+        }
+        Epic epic = background.addEpic(new Epic("Эпик", "Описание"));
+        background.updateEpic(new Epic(epic.getId(), "Эпик v2", "Описание", Status.NEW));
+        background.close();
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(200, loadedManager.getTasks().size());
+        assertEquals("Эпик v2", loadedManager.getEpicByID(epic.getId()).getName());
+    }
+
+    @Test
+    void shouldReportBackgroundWriteFailureOnClose() {
+        File unwritable = new File(tempFile, "tasks.csv");
+        try {
+            assertTrue(tempFile.createNewFile());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        FileBackedTaskManager background = new FileBackedTaskManager(unwritable, SaveMode.BACKGROUND_SNAPSHOT);
+        background.addTask(new Task("Задача", "Описание"));
+
+        assertThrows(ManagerSaveException.class, background::close,
+                "Ошибка фоновой записи не должна теряться.");
+    }
+}
@@ -71,4 +71,30 @@ class InMemoryHistoryManagerTest {
     public void getHistoryShouldReturnEmptyListIfNoTasksAdded() {
         assertTrue(historyManager.getHistory().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void addShouldEvictLeastRecentWhenFull() {
+        historyManager = new InMemoryHistoryManager(2);
+        historyManager.add(task1);
+        historyManager.add(task2);
+        historyManager.add(task1);
+        historyManager.add(task3);
+        List<Task> history = historyManager.getHistory();
+        assertEquals(List.of(task1, task3), history, "Вытесняться должен давно не просмотренный task2.");
+    }
+
+    @Test
+    public void removedSlotShouldBeReusedWithoutEviction() {
+        historyManager = new InMemoryHistoryManager(2);
+        historyManager.add(task1);
+        historyManager.add(task2);
+        historyManager.remove(task1.getId());
+        historyManager.add(task3);
+        assertEquals(List.of(task2, task3), historyManager.getHistory());
+    }
+
+    @Test
+    public void constructorShouldRejectNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryHistoryManager(0));
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntMapTest {
+
+    @Test
+    public void shouldBehaveLikeHashMapUnderRandomOperations() {
+        IntMap<String> map = new IntMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            // Узкий диапазон ключей с кратными размеру таблицы значениями даёт длинные кластеры и сдвиги при удалении.
+            int key = random.nextInt(2_000) * (random.nextBoolean() ? 1 : 1024) - 500;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key), "remove(" + key + ")");
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value), "put(" + key + ")");
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        assertEquals(expected.size(), new ArrayList<>(map.values()).size());
+    }
+
+    @Test
+    public void valuesShouldVisitEveryEntryOnce() {
+        IntMap<Integer> map = new IntMap<>();
+        for (int id = 1; id <= 100; id++) {
+            map.put(id, id);
+        }
+        for (int id = 1; id <= 100; id += 3) {
+            map.remove(id);
+        }
+        Set<Integer> seen = new HashSet<>();
+        map.values().forEach(value -> assertTrue(seen.add(value), "Значение " + value + " встретилось дважды."));
+        assertEquals(map.size(), seen.size());
+        assertFalse(seen.contains(1));
+        assertTrue(seen.contains(2));
+    }
+
+    @Test
+    public void clearShouldRemoveEverything() {
+        IntMap<String> map = new IntMap<>(4);
+        map.put(1, "a");
+        map.put(2, "b");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+        assertFalse(map.values().iterator().hasNext());
+    }
+
+    @Test
+    public void snapshotShouldNotSeeLaterChanges() {
+        IntMap<String> map = new IntMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+        IntMap<String> snapshot = map.snapshot();
+        map.put(1, "changed");
+        map.remove(2);
+        map.put(1_000, "new");
+        assertEquals("v1", snapshot.get(1));
+        assertEquals("v2", snapshot.get(2));
+        assertNull(snapshot.get(1_000));
+        assertEquals(100, snapshot.size());
+
+        IntMap<String> second = map.snapshot();
+        map.clear();
+        assertEquals("changed", second.get(1));
+        assertEquals(100, new ArrayList<>(second.values()).size());
+        assertEquals("v1", snapshot.get(1));
+        assertTrue(map.isEmpty());
+    }
+}
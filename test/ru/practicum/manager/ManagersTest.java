@@ -11,6 +11,11 @@ class ManagersTest {
         assertInstanceOf(InMemoryTaskManager.class, Managers.getDefault());
     }
 
+    @Test
+    void getConcurrentShouldInitializeConcurrentTaskManager() {
+        assertInstanceOf(ConcurrentTaskManager.class, Managers.getConcurrent());
+    }
+
     @Test
     void getDefaultHistoryShouldInitializeInMemoryHistoryManager() {
         assertInstanceOf(InMemoryHistoryManager.class, Managers.getDefaultHistory());
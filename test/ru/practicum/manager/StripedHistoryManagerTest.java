@@ -0,0 +1,79 @@
+package ru.practicum.manager;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.enums.Status;
+import ru.practicum.task.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedHistoryManagerTest {
+
+    private static final int THREADS = 8;
+    private static final int VIEWS = 5_000;
+
+    @Test
+    public void shouldMatchInMemoryHistoryForSingleThread() {
+        HistoryManager expected = new InMemoryHistoryManager(50);
+        HistoryManager striped = new StripedHistoryManager(new InMemoryHistoryManager(50), 4);
+        Random random = new Random(1);
+        List<Task> tasks = new ArrayList<>();
+        for (int id = 1; id <= 80; id++) {
+            tasks.add(new Task(id, "Task " + id, "Desc", Status.NEW));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            if (random.nextInt(10) == 0) {
+                expected.remove(task.getId());
+                striped.remove(task.getId());
+            } else {
+                expected.add(task);
+                striped.add(task);
+            }
+            if (i % 997 == 0) {
+                assertEquals(expected.getHistory(), striped.getHistory());
+            }
+        }
+        assertEquals(expected.getHistory(), striped.getHistory());
+    }
+
+    @Test
+    public void shouldKeepEachThreadsViewOrder() throws Exception {
+        HistoryManager striped = new StripedHistoryManager(new InMemoryHistoryManager(THREADS * VIEWS), THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int base = t * VIEWS;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 1; i <= VIEWS; i++) {
+                    striped.add(new Task(base + i, "Task", "Desc", Status.NEW));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<Task> history = striped.getHistory();
+        assertEquals(THREADS * VIEWS, history.size());
+        int[] lastSeen = new int[THREADS];
+        for (Task task : history) {
+            int thread = (task.getId() - 1) / VIEWS;
+            assertTrue(task.getId() > lastSeen[thread], "Просмотры одного потока должны идти в порядке записи.");
+            lastSeen[thread] = task.getId();
+        }
+    }
+}
@@ -2,14 +2,17 @@ package ru.practicum.manager;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.practicum.enums.BatchStatus;
 import ru.practicum.enums.Status;
 import ru.practicum.exception.TaskValidationException;
 import ru.practicum.task.Epic;
 import ru.practicum.task.Subtask;
 import ru.practicum.task.Task;
+import ru.practicum.task.TaskType;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -55,6 +58,79 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         assertTrue(taskManager.getSubtasks().isEmpty(), "Список подзадач должен быть пуст.");
     }
 
+    @Test
+    void listGettersShouldReuseSnapshotUntilMutation() {
+        Task task = new Task("Задача", "Описание");
+        task.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 0));
+        task.setDuration(Duration.ofMinutes(30));
+        taskManager.addTask(task);
+        taskManager.getTaskByID(task.getId());
+
+        assertSame(taskManager.getTasks(), taskManager.getTasks(), "Без изменений список не должен копироваться.");
+        assertSame(taskManager.getPrioritizedTasks(), taskManager.getPrioritizedTasks());
+        assertSame(taskManager.getHistory(), taskManager.getHistory());
+        assertThrows(UnsupportedOperationException.class, () -> taskManager.getTasks().clear());
+
+        List<Task> before = taskManager.getTasks();
+        List<Task> historyBefore = taskManager.getHistory();
+        Task second = taskManager.addTask(new Task("Задача 2", "Описание"));
+        taskManager.getTaskByID(second.getId());
+        assertNotSame(before, taskManager.getTasks());
+        assertEquals(1, before.size(), "Выданный ранее снимок не должен меняться.");
+        assertEquals(2, taskManager.getTasks().size());
+        assertEquals(List.of(task, second), taskManager.getHistory());
+        assertEquals(1, historyBefore.size());
+    }
+
+    @Test
+    void listGettersShouldReturnItemsInIdOrder() {
+        Epic epic = taskManager.addEpic(new Epic("Эпик", "Описание"));
+        for (int i = 0; i < 100; i++) {
+            Task task = taskManager.addTask(new Task("Задача " + i, "Описание"));
+            taskManager.addSubtask(new Subtask("Подзадача " + i, "...", epic.getId()));
+            if (i % 7 == 0) {
+                taskManager.deleteTaskByID(task.getId());
+            }
+        }
+
+        assertSortedById(taskManager.getTasks());
+        assertSortedById(taskManager.getSubtasks());
+        assertSortedById(taskManager.getEpics());
+    }
+
+    private void assertSortedById(List<? extends Task> items) {
+        for (int i = 1; i < items.size(); i++) {
+            assertTrue(items.get(i - 1).getId() < items.get(i).getId(), "Список должен идти по возрастанию id.");
+        }
+    }
+
+    @Test
+    void prioritizedRangeShouldHonourBoundsLimitAndCursor() {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 9, 0);
+        for (int hour = 0; hour < 10; hour++) {
+            Task task = new Task("Задача " + hour, "Описание");
+            task.setStartTime(base.plusHours(hour));
+            task.setDuration(Duration.ofMinutes(30));
+            taskManager.addTask(task);
+        }
+        Task instant = new Task("Отметка", "Нулевая длительность");
+        instant.setStartTime(base.plusHours(2));
+        taskManager.addTask(instant);
+
+        List<Task> window = taskManager.getPrioritizedTasks(base.plusHours(2), base.plusHours(5), 10);
+        assertEquals(4, window.size(), "Граница to не включается, задачи с одинаковым началом обе в выборке.");
+        assertEquals(base.plusHours(2), window.get(0).getStartTime());
+        assertEquals(base.plusHours(4), window.get(3).getStartTime());
+
+        List<Task> first = taskManager.getPrioritizedTasks(null, null, 3);
+        assertEquals(3, first.size());
+        Task last = first.get(2);
+        List<Task> next = taskManager.getPrioritizedTasksAfter(last.getStartTime(), last.getId(), null, 3);
+        assertEquals(taskManager.getPrioritizedTasks().subList(3, 6), next);
+
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getPrioritizedTasks(null, null, 0));
+    }
+
     @Test
     void epicStatusShouldBeNewWithAllNewSubtasks() {
         Epic epic = new Epic("Эпик", "Описание");
@@ -107,4 +183,95 @@ public abstract class TaskManagerTest<T extends TaskManager> {
 
         assertThrows(TaskValidationException.class, () -> taskManager.addTask(task2));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldAddAdjacentTasksAndRejectTaskInsideEarlierLongTask() {
+        taskManager.addTask(new Task("Задача 1", "Описание 1", Status.NEW,
+                LocalDateTime.of(2024, 1, 1, 8, 0), Duration.ofHours(6)));
+        taskManager.addTask(new Task("Задача 2", "Описание 2", Status.NEW,
+                LocalDateTime.of(2024, 1, 1, 14, 0), Duration.ofHours(1)));
+        taskManager.addTask(new Task("Задача 3", "Описание 3", Status.NEW,
+                LocalDateTime.of(2024, 1, 1, 7, 0), Duration.ofHours(1)));
+
+        Task inner = new Task("Задача 4", "Описание 4", Status.NEW,
+                LocalDateTime.of(2024, 1, 1, 9, 0), Duration.ofMinutes(10));
+        assertThrows(TaskValidationException.class, () -> taskManager.addTask(inner));
+        assertEquals(3, taskManager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void shouldUpdateTaskWithoutOverlappingItselfAndFreeOldSlot() {
+        Task task = taskManager.addTask(new Task("Задача", "Описание", Status.NEW,
+                LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofHours(1)));
+
+        Task moved = new Task(task.getId(), "Задача", "Описание", Status.IN_PROGRESS,
+                LocalDateTime.of(2024, 1, 1, 10, 30), Duration.ofHours(1));
+        taskManager.updateTask(moved);
+
+        Task other = new Task("Другая", "Описание", Status.NEW,
+                LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(30));
+        assertDoesNotThrow(() -> taskManager.addTask(other));
+    }
+
+    @Test
+    void epicStatusShouldFollowUpdatedSubtask() {
+        Epic epic = taskManager.addEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = taskManager.addSubtask(new Subtask("Подзадача", "...", epic.getId()));
+
+        Subtask updated = new Subtask(subtask.getId(), "Подзадача", "...", Status.DONE, epic.getId());
+        taskManager.updateSubtask(updated);
+
+        assertEquals(Status.DONE, taskManager.getEpicByID(epic.getId()).getStatus());
+        assertEquals(Status.DONE, taskManager.getEpicSubtasks(epic.getId()).get(0).getStatus());
+    }
+
+    @Test
+    void applyBatchShouldApplyInOrderAndReportEachOperation() {
+        Epic epic = taskManager.addEpic(new Epic("Эпик", "Описание"));
+        LocalDateTime start = LocalDateTime.of(2024, 2, 1, 10, 0);
+
+        List<BatchResult> results = taskManager.applyBatch(List.of(
+                BatchOperation.create(new Task("Первая", "Описание", Status.NEW, start, Duration.ofHours(1))),
+                BatchOperation.create(new Task("Пересекается", "Описание", Status.NEW,
+                        start.plusMinutes(30), Duration.ofHours(1))),
+                BatchOperation.create(new Subtask("Подзадача", "...", epic.getId())),
+                BatchOperation.update(new Epic(epic.getId(), "Эпик v2", "Описание", Status.NEW)),
+                BatchOperation.delete(TaskType.TASK, 999)));
+
+        assertEquals(5, results.size());
+        assertEquals(BatchStatus.OK, results.get(0).getStatus());
+        assertEquals(BatchStatus.OVERLAP, results.get(1).getStatus());
+        assertEquals(BatchStatus.OK, results.get(2).getStatus());
+        assertEquals(BatchStatus.OK, results.get(3).getStatus());
+        assertEquals(BatchStatus.NOT_FOUND, results.get(4).getStatus());
+        assertNotNull(results.get(4).getMessage());
+
+        assertEquals(List.of(results.get(0).getTask()), taskManager.getTasks());
+        assertEquals("Эпик v2", taskManager.getEpicByID(epic.getId()).getName());
+        assertEquals(1, taskManager.getEpicSubtasks(epic.getId()).size());
+
+        List<BatchResult> deletions = taskManager.applyBatch(List.of(
+                BatchOperation.delete(TaskType.EPIC, epic.getId()),
+                BatchOperation.delete(TaskType.SUBTASK, results.get(2).getTask().getId())));
+        assertEquals(BatchStatus.OK, deletions.get(0).getStatus());
+        assertEquals(BatchStatus.NOT_FOUND, deletions.get(1).getStatus(), "Подзадача удалена вместе с эпиком.");
+        assertTrue(taskManager.getSubtasks().isEmpty());
+    }
+
+    @Test
+    void lookupByIdsShouldReturnFoundInRequestOrderAndMissingIds() {
+        Task task = taskManager.addTask(new Task("Задача", "Описание"));
+        Epic epic = taskManager.addEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = taskManager.addSubtask(new Subtask("Подзадача", "...", epic.getId()));
+
+        LookupResult<Task> tasks = taskManager.getTasksByIds(new int[]{epic.getId(), task.getId()});
+        assertEquals(List.of(task), tasks.getFound());
+        assertEquals(List.of(epic.getId()), tasks.getMissing(), "Эпик не должен находиться среди задач.");
+
+        assertEquals(List.of(epic), taskManager.getEpicsByIds(new int[]{epic.getId()}).getFound());
+        LookupResult<Subtask> subtasks = taskManager.getSubtasksByIds(new int[]{100, subtask.getId(), 101});
+        assertEquals(List.of(subtask), subtasks.getFound());
+        assertEquals(List.of(100, 101), subtasks.getMissing());
+        assertTrue(taskManager.getHistory().isEmpty());
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    private String export() throws IOException {
+        StringWriter writer = new StringWriter();
+        registry.writePrometheus(writer);
+        return writer.toString();
+    }
+
+    @Test
+    void shouldReuseSeriesWithSameLabels() {
+        MetricsRegistry.Counter counter = registry.counter("requests_total", "Запросы.", "method", "GET");
+        assertSame(counter, registry.counter("requests_total", "Запросы.", "method", "GET"));
+        assertThrows(IllegalArgumentException.class, () -> registry.latency("requests_total", "Запросы."));
+    }
+
+    @Test
+    void shouldExportCumulativeHistogramBuckets() throws IOException {
+        MetricsRegistry.Histogram histogram = registry.latency("latency_seconds", "Задержка.", "route", "/tasks");
+        histogram.record(40_000);
+        histogram.record(50_000);
+        histogram.record(300_000);
+        histogram.record(60_000_000_000L);
+
+        String text = export();
+        assertTrue(text.contains("# TYPE latency_seconds histogram\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{route=\"/tasks\",le=\"5.0E-5\"} 2\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{route=\"/tasks\",le=\"5.0E-4\"} 3\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{route=\"/tasks\",le=\"10\"} 3\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{route=\"/tasks\",le=\"+Inf\"} 4\n"), text);
+        assertTrue(text.contains("latency_seconds_count{route=\"/tasks\"} 4\n"), text);
+        assertEquals(4, histogram.count());
+    }
+
+    @Test
+    void shouldEscapeLabelValues() throws IOException {
+        registry.counter("odd_total", "Метки.", "path", "a\"b\\c").increment();
+        assertTrue(export().contains("odd_total{path=\"a\\\"b\\\\c\"} 1\n"));
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpTaskServerBatchTest extends HttpTaskServerTest {
+
+    public HttpTaskServerBatchTest() throws IOException {
+    }
+
+    private static JsonObject operation(String action, String type) {
+        JsonObject operation = new JsonObject();
+        operation.addProperty("action", action);
+        operation.addProperty("type", type);
+        return operation;
+    }
+
+    private HttpResponse<String> postBatch(String body) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder().uri(URI.create("http://localhost:8080/batch"))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testBatchReturnsResultPerOperation() throws IOException, InterruptedException {
+        Epic epic = manager.addEpic(new Epic("Epic", "Desc"));
+        Task existing = manager.addTask(new Task("Existing", "Desc"));
+
+        JsonArray batch = new JsonArray();
+        JsonObject createTask = operation("CREATE", "TASK");
+        createTask.add("task", gson.toJsonTree(new Task("Created", "Desc")));
+        batch.add(createTask);
+        JsonObject createSubtask = operation("CREATE", "SUBTASK");
+        createSubtask.add("task", gson.toJsonTree(new Subtask("Sub", "Desc", epic.getId())));
+        batch.add(createSubtask);
+        JsonObject deleteTask = operation("DELETE", "TASK");
+        deleteTask.addProperty("id", existing.getId());
+        batch.add(deleteTask);
+        JsonObject deleteMissing = operation("DELETE", "EPIC");
+        deleteMissing.addProperty("id", 999);
+        batch.add(deleteMissing);
+
+        HttpResponse<String> response = postBatch(gson.toJson(batch));
+        assertEquals(200, response.statusCode());
+
+        JsonArray results = gson.fromJson(response.body(), JsonArray.class);
+        assertEquals(4, results.size());
+        assertEquals("OK", results.get(0).getAsJsonObject().get("status").getAsString());
+        assertEquals(epic.getId(), results.get(1).getAsJsonObject().getAsJsonObject("task").get("epicID").getAsInt());
+        assertEquals("OK", results.get(2).getAsJsonObject().get("status").getAsString());
+        assertEquals("NOT_FOUND", results.get(3).getAsJsonObject().get("status").getAsString());
+
+        assertEquals(1, manager.getTasks().size());
+        assertEquals("Created", manager.getTasks().get(0).getName());
+        assertEquals(1, manager.getEpicSubtasks(epic.getId()).size());
+    }
+
+    @Test
+    public void testMalformedBatchIsRejectedAsWhole() throws IOException, InterruptedException {
+        JsonArray batch = new JsonArray();
+        JsonObject createTask = operation("CREATE", "TASK");
+        createTask.add("task", gson.toJsonTree(new Task("Created", "Desc")));
+        batch.add(createTask);
+        batch.add(operation("MOVE", "TASK"));
+
+        HttpResponse<String> response = postBatch(gson.toJson(batch));
+        assertEquals(400, response.statusCode());
+        assertTrue(manager.getTasks().isEmpty(), "Пакет с ошибкой разбора не должен применяться частично.");
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.server;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.enums.Status;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpTaskServerCacheTest extends HttpTaskServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    public HttpTaskServerCacheTest() throws IOException {
+    }
+
+    private HttpResponse<String> get(String path, String etag) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().uri(URI.create("http://localhost:8080" + path)).GET();
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testNotModifiedUntilTaskManagerChanges() throws IOException, InterruptedException {
+        manager.addTask(new Task("Task 1", "Desc"));
+        HttpResponse<String> first = get("/tasks", null);
+        assertEquals(200, first.statusCode());
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> cached = get("/tasks", etag);
+        assertEquals(304, cached.statusCode());
+        assertTrue(cached.body().isEmpty());
+
+        manager.addTask(new Task("Task 2", "Desc"));
+        HttpResponse<String> changed = get("/tasks", etag);
+        assertEquals(200, changed.statusCode(), "Изменение через TaskManager должно сбросить кэш.");
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+        assertTrue(changed.body().contains("Task 2"));
+    }
+
+    @Test
+    public void testEpicTagFollowsSubtaskChanges() throws IOException, InterruptedException {
+        Epic epic = manager.addEpic(new Epic("Epic", "Desc"));
+        Subtask subtask = manager.addSubtask(new Subtask("Sub", "Desc", epic.getId()));
+        String etag = get("/epics", null).headers().firstValue("ETag").orElseThrow();
+
+        manager.updateSubtask(new Subtask(subtask.getId(), "Sub", "Desc", Status.DONE, epic.getId()));
+        HttpResponse<String> changed = get("/epics", etag);
+        assertEquals(200, changed.statusCode(), "Статус эпика изменился вместе с подзадачей.");
+        assertTrue(changed.body().contains("DONE"));
+    }
+
+    @Test
+    public void testHistoryTagFollowsViews() throws IOException, InterruptedException {
+        Task task = manager.addTask(new Task("Task", "Desc"));
+        String etag = get("/history", null).headers().firstValue("ETag").orElseThrow();
+        assertEquals(304, get("/history", etag).statusCode());
+
+        manager.getTaskByID(task.getId());
+        assertEquals(200, get("/history", etag).statusCode());
+    }
+}
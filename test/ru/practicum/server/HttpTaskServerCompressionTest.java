@@ -0,0 +1,91 @@
+package ru.practicum.server;
+
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Test;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpTaskServerCompressionTest extends HttpTaskServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    public HttpTaskServerCompressionTest() throws IOException {
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder().uri(URI.create("http://localhost:8080" + path))
+                .header("Accept-Encoding", acceptEncoding).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String decode(HttpResponse<byte[]> response) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+        InputStream in = new ByteArrayInputStream(response.body());
+        if (encoding.equals("gzip")) {
+            in = new GZIPInputStream(in);
+        } else if (encoding.equals("deflate")) {
+            in = new InflaterInputStream(in);
+        }
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testLargeCachedListIsCompressed() throws IOException, InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            manager.addTask(new Task("Task " + i, "Repeated description"));
+        }
+        HttpResponse<byte[]> gzip = get("/tasks", "gzip, deflate");
+        assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElseThrow());
+        List<Task> tasks = gson.fromJson(decode(gzip), new TypeToken<List<Task>>() {}.getType());
+        assertEquals(50, tasks.size());
+
+        HttpResponse<byte[]> deflate = get("/tasks", "gzip;q=0, deflate");
+        assertEquals("deflate", deflate.headers().firstValue("Content-Encoding").orElseThrow());
+        assertEquals(decode(gzip), decode(deflate));
+
+        HttpResponse<byte[]> wildcard = get("/tasks", "gzip;q=0, *");
+        assertEquals("deflate", wildcard.headers().firstValue("Content-Encoding").orElseThrow(),
+                "Звёздочка не отменяет явный запрет gzip.");
+
+        HttpResponse<byte[]> identity = get("/tasks", "identity");
+        assertTrue(identity.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals(decode(gzip), decode(identity));
+    }
+
+    @Test
+    public void testStreamedResponseCompressesOnlyAboveThreshold() throws IOException, InterruptedException {
+        Epic epic = manager.addEpic(new Epic("Epic", "Desc"));
+        HttpResponse<byte[]> small = get("/epics/" + epic.getId() + "/subtasks", "gzip");
+        assertTrue(small.headers().firstValue("Content-Encoding").isEmpty(), "Маленький ответ не сжимается.");
+        assertEquals("[]", decode(small));
+
+        HttpResponse<byte[]> forced = get("/epics/" + epic.getId() + "/subtasks", "identity;q=0, gzip");
+        assertEquals("gzip", forced.headers().firstValue("Content-Encoding").orElseThrow(),
+                "Без identity сжимается и маленький ответ.");
+        assertEquals("[]", decode(forced));
+
+        for (int i = 0; i < 50; i++) {
+            manager.addSubtask(new Subtask("Subtask " + i, "Repeated description", epic.getId()));
+        }
+        HttpResponse<byte[]> large = get("/epics/" + epic.getId() + "/subtasks", "gzip");
+        assertEquals("gzip", large.headers().firstValue("Content-Encoding").orElseThrow());
+        List<Subtask> subtasks = gson.fromJson(decode(large), new TypeToken<List<Subtask>>() {}.getType());
+        assertEquals(50, subtasks.size());
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.server;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import org.junit.jupiter.api.Test;
 import ru.practicum.task.Epic;
@@ -12,8 +14,11 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 public class HttpTaskServerEpicTest extends HttpTaskServerTest {
@@ -91,4 +96,39 @@ public class HttpTaskServerEpicTest extends HttpTaskServerTest {
         assertEquals(1, subtasks.size());
         assertEquals(subtask.getId(), subtasks.get(0).getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEpicProjection() throws IOException, InterruptedException {
+        Epic epic = manager.addEpic(new Epic("Epic", "Desc"));
+        Subtask first = manager.addSubtask(new Subtask("Sub 1", "Desc", epic.getId()));
+        Subtask second = manager.addSubtask(new Subtask("Sub 2", "Desc", epic.getId()));
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<String> counted = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/epics?fields=id,name,subtaskCount")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, counted.statusCode());
+        JsonObject countedEpic = gson.fromJson(counted.body(), JsonArray.class).get(0).getAsJsonObject();
+        assertEquals(Set.of("id", "name", "subtaskCount"), countedEpic.keySet());
+        assertEquals(2, countedEpic.get("subtaskCount").getAsInt());
+
+        HttpResponse<String> withIds = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/epics?id=" + epic.getId() + "&subtasks=ids")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        JsonObject epicWithIds = gson.fromJson(withIds.body(), JsonObject.class);
+        assertFalse(epicWithIds.has("subtaskList"));
+        assertEquals("Epic", epicWithIds.get("name").getAsString());
+        JsonArray ids = epicWithIds.getAsJsonArray("subtaskIds");
+        assertEquals(List.of(first.getId(), second.getId()), List.of(ids.get(0).getAsInt(), ids.get(1).getAsInt()));
+
+        HttpResponse<String> full = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/epics")).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertNotEquals(counted.headers().firstValue("ETag"), full.headers().firstValue("ETag"),
+                "Разные наборы полей — разные представления.");
+
+        HttpResponse<String> unknown = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/epics?fields=id,owner")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, unknown.statusCode());
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.server;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import ru.practicum.enums.ExecutorMode;
+import ru.practicum.manager.ConcurrentTaskManager;
+import ru.practicum.manager.TaskManager;
+import ru.practicum.task.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HttpTaskServerExecutorTest {
+
+    private static final int REQUESTS = 50;
+
+    @ParameterizedTest
+    @EnumSource(ExecutorMode.class)
+    public void testConcurrentRequestsOnEphemeralPort(ExecutorMode mode) throws IOException {
+        TaskManager manager = new ConcurrentTaskManager();
+        HttpTaskServer taskServer = new HttpTaskServer(manager, new ServerConfig(0, 64, mode, 4));
+        taskServer.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            URI url = URI.create("http://localhost:" + taskServer.getPort() + "/tasks");
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                String taskJson = HttpTaskServer.getGson().toJson(new Task("Task " + i, "Description"));
+                HttpRequest request = HttpRequest.newBuilder().uri(url)
+                        .POST(HttpRequest.BodyPublishers.ofString(taskJson)).build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(201, response.join().statusCode());
+            }
+            assertEquals(REQUESTS, manager.getTasks().size());
+        } finally {
+            taskServer.stop();
+        }
+    }
+}
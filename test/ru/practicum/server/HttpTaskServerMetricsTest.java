@@ -0,0 +1,78 @@
+package ru.practicum.server;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.enums.Durability;
+import ru.practicum.enums.ExecutorMode;
+import ru.practicum.enums.SaveMode;
+import ru.practicum.enums.SnapshotFormat;
+import ru.practicum.manager.FileBackedTaskManager;
+import ru.practicum.metrics.MetricsRegistry;
+import ru.practicum.task.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpTaskServerMetricsTest extends HttpTaskServerTest {
+
+    public HttpTaskServerMetricsTest() throws IOException {
+    }
+
+    @Test
+    public void testMetricsEndpointExposesRouteAndManagerSeries() throws IOException, InterruptedException {
+        manager.addTask(new Task("Task", "Desc"));
+        HttpClient client = HttpClient.newHttpClient();
+        client.send(HttpRequest.newBuilder().uri(URI.create("http://localhost:8080/tasks")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        client.send(HttpRequest.newBuilder().uri(URI.create("http://localhost:8080/tasks?id=999")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/metrics")).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain; version=0.0.4"));
+
+        String body = response.body();
+        assertTrue(body.contains("kanban_http_request_duration_seconds_count{method=\"GET\",route=\"/tasks\"}"), body);
+        assertTrue(body.contains("kanban_http_responses_total{code=\"404\",method=\"GET\",route=\"/tasks\"}")
+                || body.contains("kanban_http_responses_total{method=\"GET\",route=\"/tasks\",code=\"404\"}"), body);
+        assertTrue(body.contains("kanban_http_response_bytes_total{method=\"GET\",route=\"/tasks\"}"), body);
+        assertTrue(body.contains("kanban_manager_operation_errors_total{operation=\"getTaskByID\"}"), body);
+        assertTrue(body.contains("kanban_manager_operation_duration_seconds_bucket{operation=\"getTasks\",le=\"+Inf\"}"),
+                body);
+    }
+
+    @Test
+    public void testInjectedRegistryExposesStorageSeries() throws IOException, InterruptedException {
+        File file = File.createTempFile("tasks", ".csv");
+        MetricsRegistry registry = new MetricsRegistry();
+        FileBackedTaskManager fileManager = new FileBackedTaskManager(file, SaveMode.JOURNAL, Durability.NONE,
+                SnapshotFormat.CSV, 1, registry);
+        HttpTaskServer server = new HttpTaskServer(fileManager,
+                new ServerConfig(0, 64, ExecutorMode.SINGLE_THREAD, 1), registry);
+        server.start();
+        try {
+            fileManager.addTask(new Task("Task", "Desc"));
+            fileManager.addTask(new Task("Task", "Desc"));
+            fileManager.close();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                            .uri(URI.create("http://localhost:" + server.getPort() + "/metrics")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            String body = response.body();
+            assertTrue(body.contains("kanban_journal_bytes_total"), body);
+            assertTrue(body.contains("kanban_snapshot_write_duration_seconds_count"), body);
+            assertTrue(body.contains("kanban_snapshot_size_bytes_count"), body);
+        } finally {
+            server.stop();
+            new File(file.getPath() + ".log").delete();
+            new File(file.getPath() + ".log.old").delete();
+            file.delete();
+        }
+    }
+}
@@ -17,6 +17,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HttpTaskServerPrioritizedTest extends HttpTaskServerTest {
 
@@ -46,4 +47,34 @@ public class HttpTaskServerPrioritizedTest extends HttpTaskServerTest {
         assertEquals(task2.getId(), prioritized.get(0).getId(), "Задачи должны быть отсортированы по времени начала");
         assertEquals(task1.getId(), prioritized.get(1).getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetPrioritizedPageWithCursor() throws IOException, InterruptedException {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 6, 9, 0);
+        for (int day = 0; day < 5; day++) {
+            manager.addTask(new Task("Task " + day, "Desc", Status.NEW, base.plusDays(day), Duration.ofHours(1)));
+        }
+        HttpClient client = HttpClient.newHttpClient();
+        Type taskListType = new TypeToken<List<Task>>() {}.getType();
+
+        URI url = URI.create("http://localhost:8080/prioritized?from=2025-01-07T00:00&to=2025-01-10T00:00&limit=2");
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder().uri(url).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        List<Task> page = gson.fromJson(response.body(), taskListType);
+        assertEquals(2, page.size());
+        assertEquals(base.plusDays(1), page.get(0).getStartTime());
+        String cursor = response.headers().firstValue("X-Next-Cursor").orElseThrow();
+
+        url = URI.create("http://localhost:8080/prioritized?to=2025-01-10T00:00&limit=2&cursor=" + cursor);
+        response = client.send(HttpRequest.newBuilder().uri(url).GET().build(), HttpResponse.BodyHandlers.ofString());
+        page = gson.fromJson(response.body(), taskListType);
+        assertEquals(1, page.size(), "В диапазоне осталась одна задача.");
+        assertEquals(base.plusDays(3), page.get(0).getStartTime());
+        assertTrue(response.headers().firstValue("X-Next-Cursor").isEmpty());
+
+        url = URI.create("http://localhost:8080/prioritized?limit=abc");
+        response = client.send(HttpRequest.newBuilder().uri(url).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.server;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpTaskServerRouterTest extends HttpTaskServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    public HttpTaskServerRouterTest() throws IOException {
+    }
+
+    private HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder().uri(URI.create("http://localhost:8080" + path))
+                .method(method, HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testIdFromQueryIgnoresOtherParams() throws IOException, InterruptedException {
+        manager.addTask(new Task("First", "Desc"));
+        Task second = manager.addTask(new Task("Second", "Desc"));
+
+        HttpResponse<String> response = send("GET", "/tasks?fields=name&id=" + second.getId() + "&sort=asc");
+        assertEquals(200, response.statusCode());
+        assertEquals("Second", gson.fromJson(response.body(), Task.class).getName());
+
+        assertEquals(400, send("GET", "/tasks?id=abc").statusCode());
+    }
+
+    @Test
+    public void testPathParameters() throws IOException, InterruptedException {
+        Task task = manager.addTask(new Task("Task", "Desc"));
+        Epic epic = manager.addEpic(new Epic("Epic", "Desc"));
+        manager.addSubtask(new Subtask("Sub", "Desc", epic.getId()));
+
+        HttpResponse<String> byPath = send("GET", "/tasks/" + task.getId());
+        assertEquals(200, byPath.statusCode());
+        assertEquals(task.getId(), gson.fromJson(byPath.body(), Task.class).getId());
+
+        HttpResponse<String> subtasks = send("GET", "/epics/" + epic.getId() + "/subtasks/");
+        assertEquals(200, subtasks.statusCode());
+        assertTrue(subtasks.body().contains("Sub"));
+
+        assertEquals(201, send("DELETE", "/tasks/" + task.getId()).statusCode());
+        assertTrue(manager.getTasks().isEmpty());
+    }
+
+    @Test
+    public void testUnknownPathAndMethod() throws IOException, InterruptedException {
+        assertEquals(404, send("GET", "/unknown").statusCode());
+        assertEquals(404, send("GET", "/epics/abc/subtasks").statusCode());
+        assertEquals(404, send("GET", "/tasks/1/extra").statusCode());
+
+        HttpResponse<String> wrongMethod = send("PUT", "/history");
+        assertEquals(405, wrongMethod.statusCode());
+        assertEquals("GET", wrongMethod.headers().firstValue("Allow").orElse(""));
+    }
+}
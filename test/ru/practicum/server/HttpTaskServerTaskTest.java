@@ -2,21 +2,26 @@ package ru.practicum.server;
 
 import com.google.gson.reflect.TypeToken;
 import org.junit.jupiter.api.Test;
+import ru.practicum.enums.ExecutorMode;
 import ru.practicum.enums.Status;
+import ru.practicum.manager.LookupResult;
 import ru.practicum.task.Task;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HttpTaskServerTaskTest extends HttpTaskServerTest {
 
@@ -116,4 +121,57 @@ public class HttpTaskServerTaskTest extends HttpTaskServerTest {
 
         assertEquals(404, response.statusCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testOversizedBodyIsRejected() throws IOException, InterruptedException {
+        HttpTaskServer limitedServer = new HttpTaskServer(manager,
+                new ServerConfig(0, 0, ExecutorMode.SINGLE_THREAD, 1, 1024));
+        limitedServer.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            URI url = URI.create("http://localhost:" + limitedServer.getPort() + "/tasks");
+
+            // Больше лимита на сотни килобайт — дальше 64 КБ, которые HttpServer дочитывает при закрытии обмена.
+            String bigJson = gson.toJson(new Task("Big", "x".repeat(512 * 1024)));
+            for (int i = 0; i < 3; i++) {
+                HttpRequest sized = HttpRequest.newBuilder().uri(url)
+                        .POST(HttpRequest.BodyPublishers.ofString(bigJson)).build();
+                HttpResponse<String> response = client.send(sized, HttpResponse.BodyHandlers.ofString());
+                assertEquals(413, response.statusCode());
+                assertEquals("close", response.headers().firstValue("Connection").orElse(null));
+            }
+
+            HttpRequest chunked = HttpRequest.newBuilder().uri(url)
+                    .POST(HttpRequest.BodyPublishers.ofInputStream(
+                            () -> new ByteArrayInputStream(bigJson.getBytes(StandardCharsets.UTF_8))))
+                    .build();
+            assertEquals(413, client.send(chunked, HttpResponse.BodyHandlers.ofString()).statusCode(),
+                    "Лимит должен срабатывать и без Content-Length.");
+            assertTrue(manager.getTasks().isEmpty());
+        } finally {
+            limitedServer.stop();
+        }
+    }
+
+    @Test
+    public void testGetTasksByIdsReportsMissing() throws IOException, InterruptedException {
+        Task first = manager.addTask(new Task("First", "Desc"));
+        Task second = manager.addTask(new Task("Second", "Desc"));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/tasks?ids=" + second.getId() + ",999," + first.getId());
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder().uri(url).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+
+        Type lookupType = new TypeToken<LookupResult<Task>>() {}.getType();
+        LookupResult<Task> lookup = gson.fromJson(response.body(), lookupType);
+        assertEquals(List.of(second.getId(), first.getId()), lookup.getFound().stream().map(Task::getId).toList());
+        assertEquals(List.of(999), lookup.getMissing());
+        assertTrue(manager.getHistory().isEmpty(), "Поиск по списку id не должен попадать в историю.");
+
+        URI badUrl = URI.create("http://localhost:8080/tasks?ids=1,x");
+        assertEquals(400, client.send(HttpRequest.newBuilder().uri(badUrl).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.server;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import ru.practicum.enums.Status;
+import ru.practicum.server.adapter.DurationAdapter;
+import ru.practicum.server.adapter.LocalDateTimeAdapter;
+import ru.practicum.task.Epic;
+import ru.practicum.task.Subtask;
+import ru.practicum.task.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskJsonTest {
+
+    private final Gson gson = HttpTaskServer.getGson();
+    private final Gson reflective = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .registerTypeAdapter(Duration.class, new DurationAdapter())
+            .create();
+
+    private void assertSameJson(Object value) {
+        JsonElement expected = JsonParser.parseString(reflective.toJson(value));
+        assertEquals(expected, JsonParser.parseString(gson.toJson(value)));
+    }
+
+    @Test
+    public void shouldWriteSameJsonAsReflectiveAdapter() {
+        LocalDateTime start = LocalDateTime.of(2025, 5, 1, 9, 30);
+        assertSameJson(new Task(1, "Задача", "Описание", Status.IN_PROGRESS, start, Duration.ofMinutes(45)));
+        assertSameJson(new Task("Без времени", null));
+        assertSameJson(new Task(6, "Доли секунды", "", Status.NEW, start.plusNanos(500_000), Duration.ZERO));
+
+        Epic epic = new Epic(2, "Эпик", "Описание", Status.NEW);
+        Subtask subtask = new Subtask(3, "Подзадача", "...", Status.DONE, epic.getId());
+        subtask.setStartTime(start);
+        subtask.setDuration(Duration.ofHours(2));
+        epic.addSubtask(subtask);
+        epic.addSubtask(new Subtask(4, "Вторая", "...", Status.NEW, epic.getId()));
+        assertSameJson(subtask);
+        assertSameJson(epic);
+        assertSameJson(List.of(epic, subtask, new Task(5, "Задача", "Описание", Status.NEW)));
+    }
+
+    @Test
+    public void shouldReadIntoModelConstructors() {
+        Subtask subtask = gson.fromJson("{\"name\":\"Подзадача\",\"epicID\":7,\"startTime\":\"2025-05-01T09:30:00\","
+                + "\"duration\":30,\"unknown\":{\"nested\":[1,2]}}", Subtask.class);
+        assertEquals(7, subtask.getEpicID());
+        assertEquals(Status.NEW, subtask.getStatus());
+        assertEquals(LocalDateTime.of(2025, 5, 1, 10, 0), subtask.getEndTime());
+
+        Task task = gson.fromJson("{\"id\":3,\"name\":\"Задача\",\"status\":\"DONE\",\"startTime\":null}", Task.class);
+        assertEquals(3, task.getId());
+        assertEquals(Status.DONE, task.getStatus());
+        assertEquals(Duration.ZERO, task.getDuration());
+        assertNull(task.getStartTime());
+
+        Task precise = gson.fromJson("{\"startTime\":\"2025-05-01T09:30:15.5\"}", Task.class);
+        assertEquals(LocalDateTime.of(2025, 5, 1, 9, 30, 15, 500_000_000), precise.getStartTime());
+
+        Epic epic = gson.fromJson("{\"name\":\"Эпик\",\"subtaskList\":[{\"id\":9,\"epicID\":1}],"
+                + "\"endTime\":\"2025-05-01T09:30:00\"}", Epic.class);
+        assertTrue(epic.getSubtaskList().isEmpty(), "Состав эпика не должен приходить из тела запроса.");
+        assertNull(epic.getEndTime());
+    }
+}
@@ -4,6 +4,11 @@ import org.junit.jupiter.api.Test;
 import ru.practicum.enums.Status;
 import ru.practicum.task.Epic;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class EpicTest {
@@ -15,4 +20,63 @@ class EpicTest {
                 Status.IN_PROGRESS);
         assertEquals(epic1, epic2, "Ошибка! Наследники класса Task должны быть равны друг другу, если равен их id;");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void epicShouldTrackStatusAndTimeOfSubtasks() {
+        Epic epic = new Epic(1, "Эпик", "Описание", Status.NEW);
+        Subtask first = new Subtask(2, "Подзадача 1", "...", Status.DONE, 1);
+        first.setStartTime(LocalDateTime.of(2024, 1, 1, 10, 0));
+        first.setDuration(Duration.ofMinutes(30));
+        Subtask second = new Subtask(3, "Подзадача 2", "...", Status.NEW, 1);
+        second.setStartTime(LocalDateTime.of(2024, 1, 1, 12, 0));
+        second.setDuration(Duration.ofMinutes(60));
+
+        epic.addSubtask(first);
+        epic.addSubtask(second);
+        assertEquals(Status.IN_PROGRESS, epic.getStatus());
+        assertEquals(Duration.ofMinutes(90), epic.getDuration());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), epic.getStartTime());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 13, 0), epic.getEndTime());
+
+        Subtask secondDone = new Subtask(3, "Подзадача 2", "...", Status.DONE, 1);
+        epic.updateSubtask(secondDone);
+        assertEquals(Status.DONE, epic.getStatus());
+        assertEquals(Duration.ofMinutes(30), epic.getDuration());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 30), epic.getEndTime());
+        assertSame(secondDone, epic.getSubtaskList().get(1));
+
+        epic.removeSubtask(first);
+        assertEquals(Status.DONE, epic.getStatus());
+        assertNull(epic.getStartTime());
+        assertNull(epic.getEndTime());
+
+        epic.clearSubtasks();
+        assertEquals(Status.NEW, epic.getStatus());
+        assertEquals(Duration.ZERO, epic.getDuration());
+    }
+
+    @Test
+    public void epicShouldUpdateAndRemoveSubtasksById() {
+        Epic epic = new Epic(1, "Эпик", "Описание", Status.NEW);
+        for (int id = 2; id <= 6; id++) {
+            epic.addSubtask(new Subtask(id, "Подзадача " + id, "...", Status.NEW, 1));
+        }
+
+        epic.removeSubtask(new Subtask(3, "Подзадача 3", "...", Status.NEW, 1));
+        epic.removeSubtask(new Subtask(6, "Подзадача 6", "...", Status.NEW, 1));
+        epic.removeSubtask(new Subtask(42, "Чужая", "...", Status.NEW, 1));
+        Subtask updated = new Subtask(5, "Подзадача 5", "...", Status.DONE, 1);
+        epic.updateSubtask(updated);
+        epic.addSubtask(new Subtask(2, "Подзадача 2", "...", Status.DONE, 1));
+
+        assertEquals(3, epic.getSubtaskList().size());
+        assertTrue(epic.getSubtaskList().contains(updated));
+        assertEquals(Set.of(2, 4, 5), epic.getSubtaskList().stream().map(Task::getId).collect(Collectors.toSet()));
+        assertEquals(Status.IN_PROGRESS, epic.getStatus());
+
+        Epic copy = new Epic(epic);
+        copy.removeSubtask(updated);
+        assertEquals(2, copy.getSubtaskList().size());
+        assertEquals(3, epic.getSubtaskList().size(), "Копия не должна делить список с оригиналом.");
+    }
+}